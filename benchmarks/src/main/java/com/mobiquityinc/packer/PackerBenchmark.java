@@ -0,0 +1,97 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+//Packing of the whole generated file: reading, parsing, solving and writing of results
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PackerBenchmark {
+
+    private static final long MEGABYTE = 1L << 20;
+    private static final int MAX_TASKS_IN_FLIGHT = 1024;
+
+    @Param({"4", "32"})
+    private int fileSizeMegabytes;
+
+    @Param({"15", "40"})
+    private int thingsNumber;
+
+    @Param({"2"})
+    private int decimalPlaces;
+
+    @Param({"100"})
+    private int weightLimit;
+
+    private Path inputFile;
+    private ExecutorService executor;
+
+    @Setup
+    public void generateFile() throws IOException {
+        inputFile = Files.createTempFile("tasks", ".txt");
+        new TaskLineGenerator().generateFile(inputFile, fileSizeMegabytes * MEGABYTE
+                , thingsNumber, decimalPlaces, weightLimit);
+        executor = new ForkJoinPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        executor.shutdown();
+        Files.delete(inputFile);
+    }
+
+    @Benchmark
+    public void pack() throws APIException {
+        Packer.pack(inputFile, new DiscardingWriter());
+    }
+
+    @Benchmark
+    public void packInParallel() throws APIException {
+        Packer.pack(inputFile, new DiscardingWriter(), executor, MAX_TASKS_IN_FLIGHT);
+    }
+
+    //Results are not kept to measure the packer only. Writer.nullWriter is not available in Java 8.
+    private static final class DiscardingWriter extends Writer {
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            //Results are not needed
+        }
+
+        @Override
+        public void flush() {
+            //Nothing is kept
+        }
+
+        @Override
+        public void close() {
+            //Nothing is kept
+        }
+
+    }
+
+}
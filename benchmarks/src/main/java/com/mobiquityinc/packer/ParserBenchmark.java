@@ -0,0 +1,45 @@
+package com.mobiquityinc.packer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+//Parsing of a single task line
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    //The largest number is PackagingTaskParser.MAXIMUM_THINGS_ALLOWED, longer lines are rejected by the parser
+    @Param({"15", "100", "200"})
+    private int thingsNumber;
+
+    @Param({"0", "2", "6"})
+    private int decimalPlaces;
+
+    private String taskLine;
+
+    @Setup
+    public void generateTaskLine() {
+        taskLine = new TaskLineGenerator().generateLine(thingsNumber, decimalPlaces, 100);
+    }
+
+    @Benchmark
+    public PackagingTask parse() throws InvalidTaskStringException {
+        return PackagingTaskParser.parse(taskLine);
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.mobiquityinc.packer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+//Solving of a single task, sequentially and split among workers of the pool. The number of things, the precision
+//of weights and the weight limit decide which search the solver chooses.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"15", "30", "100"})
+    private int thingsNumber;
+
+    @Param({"0", "2", "6"})
+    private int decimalPlaces;
+
+    @Param({"10", "100"})
+    private int weightLimit;
+
+    private PackagingTask packagingTask;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void generateTask() throws InvalidTaskStringException {
+        String taskLine = new TaskLineGenerator().generateLine(thingsNumber, decimalPlaces, weightLimit);
+        packagingTask = PackagingTaskParser.parse(taskLine);
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public PackageLayout solve() {
+        return PackagingTaskSolver.findBestLayout(packagingTask);
+    }
+
+    @Benchmark
+    public PackageLayout solveInParallel() {
+        return PackagingTaskSolver.findBestLayout(packagingTask, pool);
+    }
+
+}
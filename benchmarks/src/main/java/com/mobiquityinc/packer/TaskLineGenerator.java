@@ -0,0 +1,53 @@
+package com.mobiquityinc.packer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+//Generates random task lines for benchmarks. The seed is fixed, so every run measures the same input.
+final class TaskLineGenerator {
+
+    private static final long SEED = 42L;
+    private static final int MAX_COST = 100;
+    private static final int COST_DECIMAL_PLACES = 2;
+
+    private final Random random = new Random(SEED);
+
+    //Weights of things are spread up to the weight limit, so most things fit and the solver has to search
+    String generateLine(int thingsNumber, int decimalPlaces, int weightLimit) {
+        StringBuilder line = new StringBuilder().append(weightLimit).append(" :");
+        for (int index = 1; index <= thingsNumber; index++) {
+            line.append(" (").append(index)
+                    .append(',').append(generateValue(weightLimit, decimalPlaces))
+                    .append(",€").append(generateValue(MAX_COST, COST_DECIMAL_PLACES))
+                    .append(')');
+        }
+        return line.toString();
+    }
+
+    //Writes lines until the file is at least of the given size
+    void generateFile(Path file, long minFileSize, int thingsNumber, int decimalPlaces, int weightLimit)
+            throws IOException {
+        long fileSize = 0L;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            while (fileSize < minFileSize) {
+                String line = generateLine(thingsNumber, decimalPlaces, weightLimit);
+                writer.write(line);
+                writer.newLine();
+                //Each euro sign takes three bytes in UTF-8
+                fileSize += line.length() + 2L * thingsNumber + 1L;
+            }
+        }
+    }
+
+    //Returns a positive value not greater than the maximum
+    private String generateValue(int maxValue, int decimalPlaces) {
+        long scaledMaxValue = BigDecimal.valueOf(maxValue).movePointRight(decimalPlaces).longValueExact();
+        long scaledValue = 1L + (long) (random.nextDouble() * scaledMaxValue);
+        return BigDecimal.valueOf(Math.min(scaledValue, scaledMaxValue), decimalPlaces).toPlainString();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.mobiquityinc.packer;
+
+import java.math.BigDecimal;
+
+//The best layout found within a solving budget. If the search has not finished, the layout could be not the best
+//one, but no layout of the task is more expensive than the proven upper bound, so the gap between the bound and
+//the cost of the layout shows how far from the best layout it could be.
+final class AnytimeLayout {
+
+    private final PackageLayout layout;
+    private final BigDecimal costUpperBound;
+    private final boolean optimal;
+
+    AnytimeLayout(PackageLayout layout, BigDecimal costUpperBound, boolean optimal) {
+        this.layout = layout;
+        this.costUpperBound = costUpperBound;
+        this.optimal = optimal;
+    }
+
+    //The search has finished, so the layout is the same as the exact methods give
+    static AnytimeLayout optimal(PackageLayout layout) {
+        return new AnytimeLayout(layout, layout.getCost(), true);
+    }
+
+    PackageLayout getLayout() {
+        return layout;
+    }
+
+    BigDecimal getCostUpperBound() {
+        return costUpperBound;
+    }
+
+    boolean isOptimal() {
+        return optimal;
+    }
+
+    BigDecimal getGap() {
+        return costUpperBound.subtract(layout.getCost());
+    }
+
+    //The gap relative to the upper bound, 0 for the optimal layout
+    double getRelativeGap() {
+        return costUpperBound.signum() == 0 ? 0.0 : getGap().doubleValue() / costUpperBound.doubleValue();
+    }
+
+    //Applies the layout of the reduced task to the original one: costs of fixed things are added to the bound too
+    AnytimeLayout expand(TaskReduction reduction) {
+        PackageLayout expandedLayout = reduction.expand(layout);
+        return new AnytimeLayout(expandedLayout
+                , costUpperBound.add(expandedLayout.getCost().subtract(layout.getCost())), optimal);
+    }
+
+    @Override
+    public String toString() {
+        return "AnytimeLayout{"
+                + "layout=" + layout
+                + ", costUpperBound=" + costUpperBound
+                + ", optimal=" + optimal
+                + '}';
+    }
+
+}
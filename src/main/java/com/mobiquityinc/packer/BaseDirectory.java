@@ -0,0 +1,39 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+//Directory of files the server is allowed to pack. Requested paths are resolved against it and then to real paths,
+//so neither absolute paths, nor "..", nor symbolic links lead out of it. Files which don't exist, could not be read
+//or are outside the directory are reported with the same message, so clients don't learn which files exist outside.
+final class BaseDirectory {
+
+    static final String FILE_NOT_FOUND_MESSAGE = "The file is not found in the base directory";
+
+    private final Path realPath;
+
+    BaseDirectory(Path directory) throws IOException {
+        this.realPath = directory.toRealPath();
+        if (!Files.isDirectory(realPath)) {
+            throw new IllegalArgumentException("The base directory must be a directory, but got '" + directory + "'");
+        }
+    }
+
+    Path resolve(String file) throws APIException {
+        Path resolvedFile;
+        try {
+            resolvedFile = realPath.resolve(file).toRealPath();
+        } catch (InvalidPathException | IOException e) {
+            throw new APIException(FILE_NOT_FOUND_MESSAGE, e);
+        }
+        if (!resolvedFile.startsWith(realPath) || !Files.isRegularFile(resolvedFile)) {
+            throw new APIException(FILE_NOT_FOUND_MESSAGE);
+        }
+        return resolvedFile;
+    }
+
+}
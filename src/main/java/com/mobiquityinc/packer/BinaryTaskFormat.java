@@ -0,0 +1,50 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+//Binary form of packaging tasks, which is read without any string handling. The file starts with the magic bytes
+//and the version of the format, then records follow, one per task:
+//  record:  varint length of the body, body
+//  body:    varint weight scale, varint cost scale, varint scaled weight limit, varint number of things,
+//           then varint index, varint scaled weight and varint scaled cost of each thing
+//Values are the same integers as in PackagingTask. Varints are unsigned LEB128: seven bits per byte starting from
+//the lowest ones, the highest bit of a byte means that more bytes follow. So indexes and scales take one or a few
+//bytes, and a reader could skip a record without decoding it.
+final class BinaryTaskFormat {
+
+    //The first byte is never the first byte of a UTF-8 character, so a text file could not start with the magic
+    static final byte[] MAGIC = {(byte) 0x89, 'P', 'K', 'T'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = MAGIC.length + 1;
+    //Ten bytes of seven bits cover all 64 bits of a long
+    static final int MAX_VARINT_SIZE = 10;
+    static final int VARINT_VALUE_BITS = 7;
+    static final int VARINT_VALUE_MASK = 0x7F;
+    static final int VARINT_CONTINUATION_BIT = 0x80;
+
+    private BinaryTaskFormat() {
+        //No need to instantiate this class
+    }
+
+    //Only regular files are checked, because reading the header of a pipe would lose its bytes
+    static boolean isBinary(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        byte[] magic = new byte[MAGIC.length];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read = 0;
+            int count = 0;
+            while (read < magic.length && count >= 0) {
+                count = input.read(magic, read, magic.length - read);
+                read += Math.max(count, 0);
+            }
+            return read == magic.length && Arrays.equals(magic, MAGIC);
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.mobiquityinc.packer;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.mobiquityinc.packer.BinaryTaskFormat.MAX_VARINT_SIZE;
+import static com.mobiquityinc.packer.BinaryTaskFormat.VARINT_CONTINUATION_BIT;
+import static com.mobiquityinc.packer.BinaryTaskFormat.VARINT_VALUE_BITS;
+import static com.mobiquityinc.packer.BinaryTaskFormat.VARINT_VALUE_MASK;
+
+//Reads tasks in the binary format. Each record is read into a reusable buffer and decoded right to arrays of
+//the task. Values are checked against the same limits as the text parser uses, so a corrupted file could not give
+//solvers a task they don't expect. Such file is reported the same way as a text file with malformed characters.
+final class BinaryTaskReader implements TaskReader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_RECORD_CAPACITY = 512;
+    //The longest valid record contains the maximum number of things with the longest values
+    private static final int MAX_RECORD_SIZE = (PackagingTaskParser.MAXIMUM_THINGS_ALLOWED * 3 + 4) * MAX_VARINT_SIZE;
+    //The text format allows indexes up to nine digits
+    private static final long MAX_INDEX = 999_999_999L;
+
+    private final InputStream input;
+    private byte[] record = new byte[INITIAL_RECORD_CAPACITY];
+    private int recordSize;
+    private int position;
+    private long recordNumber;
+
+    BinaryTaskReader(Path inputFile) throws IOException {
+        this.input = new BufferedInputStream(Files.newInputStream(inputFile), BUFFER_SIZE);
+        try {
+            checkHeader();
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public PackagingTask readTask() throws IOException {
+        int firstByte = input.read();
+        if (firstByte < 0) {
+            return null;
+        }
+        recordNumber++;
+        long length = readRecordLength(firstByte);
+        if (length > MAX_RECORD_SIZE) {
+            throw malformedRecord("the record is longer than any valid one");
+        }
+        recordSize = (int) length;
+        if (record.length < recordSize) {
+            record = Arrays.copyOf(record, Math.max(recordSize, record.length * 2));
+        }
+        readFully(recordSize);
+        position = 0;
+        return decodeTask();
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private void checkHeader() throws IOException {
+        byte[] header = new byte[BinaryTaskFormat.HEADER_SIZE];
+        int read = 0;
+        while (read < header.length) {
+            int count = input.read(header, read, header.length - read);
+            if (count < 0) {
+                throw new EOFException("The binary task file is shorter than its header");
+            }
+            read += count;
+        }
+        if (!Arrays.equals(Arrays.copyOf(header, BinaryTaskFormat.MAGIC.length), BinaryTaskFormat.MAGIC)) {
+            throw new IOException("The file is not a binary task file");
+        }
+        int version = header[BinaryTaskFormat.MAGIC.length];
+        if (version != BinaryTaskFormat.VERSION) {
+            throw new IOException("Version " + version + " of the binary task file is not supported, only version "
+                    + BinaryTaskFormat.VERSION + " is");
+        }
+    }
+
+    private long readRecordLength(int firstByte) throws IOException {
+        long length = firstByte & VARINT_VALUE_MASK;
+        int nextByte = firstByte;
+        int shift = 0;
+        while ((nextByte & VARINT_CONTINUATION_BIT) != 0) {
+            shift += VARINT_VALUE_BITS;
+            nextByte = input.read();
+            if (nextByte < 0 || shift > Integer.SIZE) {
+                throw malformedRecord("the record length is not complete");
+            }
+            length |= (long) (nextByte & VARINT_VALUE_MASK) << shift;
+        }
+        return length;
+    }
+
+    private void readFully(int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = input.read(record, read, length - read);
+            if (count < 0) {
+                throw malformedRecord("the file ends in the middle of the record");
+            }
+            read += count;
+        }
+    }
+
+    private PackagingTask decodeTask() throws IOException {
+        int weightScale = (int) readValue(PackagingTask.MAX_SCALE, "weight scale");
+        int costScale = (int) readValue(PackagingTask.MAX_SCALE, "cost scale");
+        long scaledWeightLimit = readValue(scale(PackagingTaskParser.MAX_WEIGHT_LIMIT, weightScale), "weight limit");
+        int thingsNumber = (int) readValue(PackagingTaskParser.MAXIMUM_THINGS_ALLOWED, "number of things");
+        if (thingsNumber < PackagingTaskParser.MINIMUM_THINGS_ALLOWED) {
+            throw malformedRecord("the task doesn't contain things");
+        }
+        long maxWeight = scale(PackagingTaskParser.MAX_THING_WEIGHT, weightScale);
+        long maxCost = scale(PackagingTaskParser.MAX_THING_COST, costScale);
+        int[] indexes = new int[thingsNumber];
+        long[] scaledWeights = new long[thingsNumber];
+        long[] scaledCosts = new long[thingsNumber];
+        for (int i = 0; i < thingsNumber; i++) {
+            indexes[i] = (int) readValue(MAX_INDEX, "thing index");
+            scaledWeights[i] = readValue(maxWeight, "thing weight");
+            scaledCosts[i] = readValue(maxCost, "thing cost");
+        }
+        if (position != recordSize) {
+            throw malformedRecord("the record contains bytes after the last thing");
+        }
+        return new PackagingTask(scaledWeightLimit, weightScale, costScale, indexes, scaledWeights, scaledCosts);
+    }
+
+    private long readValue(long maxValue, String valueName) throws IOException {
+        long value = 0L;
+        int shift = 0;
+        int nextByte = VARINT_CONTINUATION_BIT;
+        while ((nextByte & VARINT_CONTINUATION_BIT) != 0) {
+            if (position == recordSize || shift >= Long.SIZE) {
+                throw malformedRecord("the " + valueName + " is not complete");
+            }
+            nextByte = record[position++];
+            value |= (long) (nextByte & VARINT_VALUE_MASK) << shift;
+            shift += VARINT_VALUE_BITS;
+        }
+        if (value < 0L || value > maxValue) {
+            throw malformedRecord("the " + valueName + " " + value + " is out of range 0-" + maxValue);
+        }
+        return value;
+    }
+
+    private static long scale(long value, int scale) {
+        long scaledValue = value;
+        for (int i = 0; i < scale; i++) {
+            scaledValue *= 10L;
+        }
+        return scaledValue;
+    }
+
+    private IOException malformedRecord(String reason) {
+        return new IOException("Malformed record " + recordNumber + " of the binary task file: " + reason);
+    }
+
+}
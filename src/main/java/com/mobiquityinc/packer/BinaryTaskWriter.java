@@ -0,0 +1,80 @@
+package com.mobiquityinc.packer;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.mobiquityinc.packer.BinaryTaskFormat.MAX_VARINT_SIZE;
+import static com.mobiquityinc.packer.BinaryTaskFormat.VARINT_CONTINUATION_BIT;
+import static com.mobiquityinc.packer.BinaryTaskFormat.VARINT_VALUE_BITS;
+import static com.mobiquityinc.packer.BinaryTaskFormat.VARINT_VALUE_MASK;
+
+//Writes tasks in the binary format. The body of a record is encoded into a reusable buffer first, because its length
+//is written before it.
+final class BinaryTaskWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    //Enough for a task of 16 things with the longest values
+    private static final int INITIAL_RECORD_CAPACITY = 512;
+
+    private final OutputStream output;
+    private final byte[] lengthBytes = new byte[MAX_VARINT_SIZE];
+    private byte[] record = new byte[INITIAL_RECORD_CAPACITY];
+    private int recordSize;
+
+    BinaryTaskWriter(Path outputFile) throws IOException {
+        this.output = new BufferedOutputStream(Files.newOutputStream(outputFile), BUFFER_SIZE);
+        try {
+            output.write(BinaryTaskFormat.MAGIC);
+            output.write(BinaryTaskFormat.VERSION);
+        } catch (IOException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    void writeTask(PackagingTask packagingTask) throws IOException {
+        int thingsNumber = packagingTask.getThingsNumber();
+        recordSize = 0;
+        ensureRecordCapacity((thingsNumber * 3 + 4) * MAX_VARINT_SIZE);
+        recordSize = putVarLong(record, recordSize, packagingTask.getWeightScale());
+        recordSize = putVarLong(record, recordSize, packagingTask.getCostScale());
+        recordSize = putVarLong(record, recordSize, packagingTask.getScaledWeightLimit());
+        recordSize = putVarLong(record, recordSize, thingsNumber);
+        for (int position = 0; position < thingsNumber; position++) {
+            recordSize = putVarLong(record, recordSize, packagingTask.getIndex(position));
+            recordSize = putVarLong(record, recordSize, packagingTask.getScaledWeight(position));
+            recordSize = putVarLong(record, recordSize, packagingTask.getScaledCost(position));
+        }
+        output.write(lengthBytes, 0, putVarLong(lengthBytes, 0, recordSize));
+        output.write(record, 0, recordSize);
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    private void ensureRecordCapacity(int capacity) {
+        if (record.length < capacity) {
+            record = Arrays.copyOf(record, Math.max(capacity, record.length * 2));
+        }
+    }
+
+    //Returns the position after the value. Values are never negative, so the loop ends after ten bytes at most.
+    private static int putVarLong(byte[] bytes, int position, long value) {
+        int nextPosition = position;
+        long restBits = value;
+        while ((restBits & ~(long) VARINT_VALUE_MASK) != 0L) {
+            bytes[nextPosition++] = (byte) (restBits & VARINT_VALUE_MASK | VARINT_CONTINUATION_BIT);
+            restBits >>>= VARINT_VALUE_BITS;
+        }
+        bytes[nextPosition++] = (byte) restBits;
+        return nextPosition;
+    }
+
+}
@@ -0,0 +1,296 @@
+package com.mobiquityinc.packer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+//Depth-first branch and bound search. Things are sorted by cost/weight ratio, so the search takes the most
+//valuable things first and the upper bound of the fractional (LP-relaxed) knapsack problem cuts off
+//branches which could not lead to a layout at least as good as the best found so far.
+final class BranchAndBoundSolver {
+
+    //Going deeper makes more branches than workers, so the pool could balance the load
+    private static final int BRANCHES_PER_WORKER = 8;
+    //Sorting of things is the fixed cost
+    private static final double NODE_COST = 10.0;
+    private static final double FIXED_COST = 2000.0;
+    //Reading the clock takes longer than visiting a node, so it is read once per this number of nodes
+    private static final long CLOCK_CHECK_INTERVAL = 1L << 8;
+
+    private final PackagingTask packagingTask;
+    private final int[] order;
+    private final boolean[] sameAsPrevious;
+    private final boolean[] taken;
+    private final boolean[] bestTaken;
+    //The best cost found by any of solvers working on the same task in parallel
+    private final AtomicLong sharedBestCost;
+    private long bestCost;
+    private long bestWeight;
+    private long visitedNodes;
+    //Budget of the anytime search, unlimited by default
+    private long maxVisitedNodes = Long.MAX_VALUE;
+    private boolean timeLimited;
+    private long deadline;
+    private long nextClockCheck;
+    private boolean budgetExhausted;
+    //The highest cost upper bound of branches left unexplored when the budget has been exhausted
+    private long abandonedUpperBound;
+
+    private BranchAndBoundSolver(PackagingTask packagingTask, int[] order, boolean[] sameAsPrevious
+            , AtomicLong sharedBestCost) {
+        this.packagingTask = packagingTask;
+        this.order = order;
+        this.sameAsPrevious = sameAsPrevious;
+        this.taken = new boolean[order.length];
+        //Use empty package as a seed for determining the best layout
+        this.bestTaken = new boolean[order.length];
+        this.sharedBestCost = sharedBestCost;
+    }
+
+    private static BranchAndBoundSolver create(PackagingTask packagingTask) {
+        //Identical things are placed next to each other ordered by position
+        int[] order = IntStream.range(0, packagingTask.getThingsNumber())
+                .boxed()
+                .sorted(Comparator.<Integer>comparingDouble(position -> getCostToWeightRatio(packagingTask, position))
+                        .reversed()
+                        .thenComparingLong(packagingTask::getScaledWeight)
+                        .thenComparingLong(packagingTask::getScaledCost)
+                        .thenComparingInt(Integer::intValue))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        boolean[] sameAsPrevious = new boolean[order.length];
+        for (int i = 1; i < order.length; i++) {
+            sameAsPrevious[i] = packagingTask.getScaledWeight(order[i]) == packagingTask.getScaledWeight(order[i - 1])
+                    && packagingTask.getScaledCost(order[i]) == packagingTask.getScaledCost(order[i - 1]);
+        }
+        return new BranchAndBoundSolver(packagingTask, order, sameAsPrevious, new AtomicLong());
+    }
+
+    //Usually bounds cut off almost all branches, but it depends on values so much that only the worst case
+    //of visiting all nodes of the search tree could be promised
+    static double estimateCost(PackagingTask packagingTask) {
+        return FIXED_COST + NODE_COST * Math.pow(2.0, packagingTask.getThingsNumber() + 1.0);
+    }
+
+    static PackageLayout findBestLayout(PackagingTask packagingTask) {
+        BranchAndBoundSolver solver = create(packagingTask);
+        solver.search(0, 0L, 0L);
+        return solver.toBestLayout(solver.visitedNodes);
+    }
+
+    //Branches of the first search levels are searched by separate tasks of the pool. Solvers of the branches
+    //share the best cost, so a branch is cut off as soon as any of the solvers has found a more expensive layout.
+    static PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+        BranchAndBoundSolver root = create(packagingTask);
+        int splitDepth = Math.min(root.order.length
+                , Integer.SIZE - 1 - Integer.numberOfLeadingZeros(pool.getParallelism() * BRANCHES_PER_WORKER));
+        List<ForkJoinTask<BranchAndBoundSolver>> branches = new ArrayList<>();
+        root.split(splitDepth, 0, 0L, 0L, pool, branches);
+        BranchAndBoundSolver best = branches.get(0).join();
+        long visitedNodes = best.visitedNodes;
+        for (int i = 1; i < branches.size(); i++) {
+            BranchAndBoundSolver branch = branches.get(i).join();
+            visitedNodes += branch.visitedNodes;
+            if (isBetter(branch.bestCost, branch.bestWeight, branch.bestTaken
+                    , best.bestCost, best.bestWeight, best.bestTaken)) {
+                best = branch;
+            }
+        }
+        return best.toBestLayout(visitedNodes);
+    }
+
+    //Anytime search: the greedy layout by cost/weight ratio is taken as the best one found before the search starts,
+    //and the search stops when the budget is exhausted. Unexplored branches give the proven upper bound of the cost.
+    static AnytimeLayout findBestLayout(PackagingTask packagingTask, SolvingBudget budget) {
+        BranchAndBoundSolver solver = create(packagingTask);
+        solver.maxVisitedNodes = budget.getMaxNodes();
+        solver.timeLimited = budget.isTimeLimited();
+        solver.deadline = System.nanoTime() + budget.getMaxTime();
+        solver.takeGreedyLayout();
+        solver.search(0, 0L, 0L);
+        PackageLayout layout = solver.toBestLayout(solver.visitedNodes);
+        if (!solver.budgetExhausted) {
+            return AnytimeLayout.optimal(layout);
+        }
+        return new AnytimeLayout(layout, BigDecimal.valueOf(Math.max(solver.bestCost, solver.abandonedUpperBound)
+                , packagingTask.getCostScale()), false);
+    }
+
+    private void takeGreedyLayout() {
+        for (int position : order) {
+            long thingWeight = packagingTask.getScaledWeight(position);
+            if (bestWeight + thingWeight <= packagingTask.getScaledWeightLimit()) {
+                bestTaken[position] = true;
+                bestCost += packagingTask.getScaledCost(position);
+                bestWeight += thingWeight;
+            }
+        }
+        sharedBestCost.set(bestCost);
+    }
+
+    //Walks the first levels the same way as the search does, but without cutting branches off
+    private void split(int splitDepth, int depth, long cost, long weight, ForkJoinPool pool
+            , List<ForkJoinTask<BranchAndBoundSolver>> branches) {
+        if (depth == splitDepth) {
+            BranchAndBoundSolver branch = new BranchAndBoundSolver(packagingTask, order, sameAsPrevious
+                    , sharedBestCost);
+            System.arraycopy(taken, 0, branch.taken, 0, taken.length);
+            branches.add(pool.submit(() -> {
+                branch.search(depth, cost, weight);
+                return branch;
+            }));
+            return;
+        }
+        int position = order[depth];
+        long thingWeight = packagingTask.getScaledWeight(position);
+        if (isAllowedToTake(depth, weight + thingWeight)) {
+            taken[position] = true;
+            split(splitDepth, depth + 1, cost + packagingTask.getScaledCost(position), weight + thingWeight
+                    , pool, branches);
+            taken[position] = false;
+        }
+        split(splitDepth, depth + 1, cost, weight, pool, branches);
+    }
+
+    private PackageLayout toBestLayout(long exploredStates) {
+        BitSet takenPositions = new BitSet(bestTaken.length);
+        for (int i = 0; i < bestTaken.length; i++) {
+            takenPositions.set(i, bestTaken[i]);
+        }
+        return PackageLayout.of(packagingTask, takenPositions, exploredStates);
+    }
+
+    private static double getCostToWeightRatio(PackagingTask packagingTask, int position) {
+        long weight = packagingTask.getScaledWeight(position);
+        long cost = packagingTask.getScaledCost(position);
+        if (weight == 0) {
+            return cost == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return (double) cost / weight;
+    }
+
+    private void search(int depth, long cost, long weight) {
+        visitedNodes++;
+        if (depth == order.length) {
+            if (isBetter(cost, weight, taken, bestCost, bestWeight, bestTaken)) {
+                bestCost = cost;
+                bestWeight = weight;
+                System.arraycopy(taken, 0, bestTaken, 0, taken.length);
+                sharedBestCost.accumulateAndGet(cost, Math::max);
+            }
+            return;
+        }
+        if (isBranchHopeless(depth, cost, weight)) {
+            return;
+        }
+        if (isBudgetExhausted()) {
+            abandonBranch(depth, cost, weight);
+            return;
+        }
+        int position = order[depth];
+        long thingWeight = packagingTask.getScaledWeight(position);
+        if (isAllowedToTake(depth, weight + thingWeight)) {
+            taken[position] = true;
+            search(depth + 1, cost + packagingTask.getScaledCost(position), weight + thingWeight);
+            taken[position] = false;
+        }
+        //The branch without the thing is left unexplored if the budget has been exhausted in the one with it
+        if (budgetExhausted) {
+            abandonBranch(depth + 1, cost, weight);
+            return;
+        }
+        search(depth + 1, cost, weight);
+    }
+
+    private boolean isBudgetExhausted() {
+        if (visitedNodes > maxVisitedNodes) {
+            budgetExhausted = true;
+        }
+        if (!budgetExhausted && timeLimited && visitedNodes >= nextClockCheck) {
+            nextClockCheck = visitedNodes + CLOCK_CHECK_INTERVAL;
+            budgetExhausted = System.nanoTime() - deadline > 0;
+        }
+        return budgetExhausted;
+    }
+
+    private void abandonBranch(int depth, long cost, long weight) {
+        abandonedUpperBound = Math.max(abandonedUpperBound, calculateUpperBound(depth, cost, weight));
+    }
+
+    //Of two identical things the brute force takes the one with lower position, so there is no sense to take
+    //the thing if the identical one before it has been left out
+    private boolean isAllowedToTake(int depth, long weightWithThing) {
+        return (!sameAsPrevious[depth] || taken[order[depth - 1]])
+                && weightWithThing <= packagingTask.getScaledWeightLimit();
+    }
+
+    //Equal cost still could be reached with a lighter layout, so a branch is cut off only if its cost upper bound is
+    //lower than the best cost, or it is equal, but the best cost could not be reached without exceeding the best weight
+    private boolean isBranchHopeless(int depth, long cost, long weight) {
+        long upperBound = calculateUpperBound(depth, cost, weight);
+        //The shared best cost is never lower than the own one
+        if (upperBound < sharedBestCost.get()) {
+            return true;
+        }
+        return upperBound == bestCost && weight + calculateLowerWeightBound(depth, bestCost - cost) > bestWeight;
+    }
+
+    private long calculateUpperBound(int depth, long cost, long weight) {
+        long bound = cost;
+        long remainingCapacity = packagingTask.getScaledWeightLimit() - weight;
+        for (int i = depth; i < order.length; i++) {
+            long thingWeight = packagingTask.getScaledWeight(order[i]);
+            long thingCost = packagingTask.getScaledCost(order[i]);
+            if (thingWeight > remainingCapacity) {
+                //Costs are integers, so the rounding up keeps the bound valid despite of double inaccuracy
+                return bound + (long) Math.ceil((double) thingCost * remainingCapacity / thingWeight);
+            }
+            bound += thingCost;
+            remainingCapacity -= thingWeight;
+        }
+        return bound;
+    }
+
+    //Minimal weight of things needed to gain the cost provided if things could be taken partially
+    private long calculateLowerWeightBound(int depth, long costToGain) {
+        long bound = 0L;
+        long remainingCost = costToGain;
+        for (int i = depth; i < order.length && remainingCost > 0L; i++) {
+            long thingWeight = packagingTask.getScaledWeight(order[i]);
+            long thingCost = packagingTask.getScaledCost(order[i]);
+            if (thingCost >= remainingCost) {
+                //Weights are integers, so the rounding down keeps the bound valid despite of double inaccuracy
+                return bound + (long) Math.floor((double) thingWeight * remainingCost / thingCost);
+            }
+            bound += thingWeight;
+            remainingCost -= thingCost;
+        }
+        //If the cost could not be gained at all, the bound is greater than any allowed weight
+        return remainingCost > 0L ? packagingTask.getScaledWeightLimit() + 1L : bound;
+    }
+
+    //The same order as the brute force gives: higher cost first, then lower weight, then the layout with the lower
+    //layout number, i.e. the one which doesn't contain the thing with the highest position where layouts differ
+    private static boolean isBetter(long cost, long weight, boolean[] taken
+            , long otherCost, long otherWeight, boolean[] otherTaken) {
+        if (cost != otherCost) {
+            return cost > otherCost;
+        }
+        if (weight != otherWeight) {
+            return weight < otherWeight;
+        }
+        for (int i = taken.length - 1; i >= 0; i--) {
+            if (taken[i] != otherTaken[i]) {
+                return otherTaken[i];
+            }
+        }
+        return false;
+    }
+
+}
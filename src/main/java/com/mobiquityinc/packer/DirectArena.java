@@ -0,0 +1,88 @@
+package com.mobiquityinc.packer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Off-heap memory for rows and choices of the dynamic programming. Each thread keeps its arena and reuses it for all
+//tasks it solves, so big rows are neither allocated in the heap nor collected by the GC. The memory grows by powers
+//of two up to the biggest task solved by the thread, and arrays are allocated from it one after another and cleared
+//before use. The memory is kept whatever its size is, so a thread solving big tasks doesn't allocate direct memory
+//for each of them. Rows and choices are limited by the dynamic programming, so an arena never exceeds 1 GiB, and
+//it is freed together with its thread. If the arena of the thread is in use (e.g. a worker solves another task while
+//joining), a temporary one is given and dropped after the task.
+final class DirectArena implements AutoCloseable {
+
+    private static final ThreadLocal<DirectArena> THREAD_ARENAS = ThreadLocal.withInitial(DirectArena::new);
+    private static final int MIN_BYTES = 1 << 12;
+    private static final ByteBuffer NO_MEMORY = ByteBuffer.allocateDirect(0);
+
+    private final boolean temporary;
+    private ByteBuffer memory = NO_MEMORY;
+    private boolean inUse;
+    //Offset of the next array in bytes
+    private int allocated;
+
+    private DirectArena() {
+        this(false);
+    }
+
+    private DirectArena(boolean temporary) {
+        this.temporary = temporary;
+    }
+
+    //The arena could allocate arrays of totalLongs longs together until it is closed
+    static DirectArena acquire(long totalLongs) {
+        if (totalLongs > Integer.MAX_VALUE / Long.BYTES) {
+            throw new IllegalArgumentException("Too much direct memory requested: " + totalLongs + " longs");
+        }
+        DirectArena threadArena = THREAD_ARENAS.get();
+        DirectArena arena = threadArena.inUse ? new DirectArena(true) : threadArena;
+        arena.reserve((int) totalLongs * Long.BYTES);
+        arena.inUse = true;
+        arena.allocated = 0;
+        return arena;
+    }
+
+    //Size of the memory kept by the arena of the current thread
+    static int getThreadArenaBytes() {
+        return THREAD_ARENAS.get().memory.capacity();
+    }
+
+    //Returns a cleared array of longs in the native byte order, it is valid until the arena is closed. Arrays are
+    //byte buffers, so vector kernels could load them, others could view them as long buffers.
+    ByteBuffer allocate(int longs) {
+        int bytes = longs * Long.BYTES;
+        if (bytes > memory.capacity() - allocated) {
+            throw new IllegalStateException("The arena has only " + (memory.capacity() - allocated)
+                    + " bytes left, but " + bytes + " bytes requested");
+        }
+        ByteBuffer view = memory.duplicate();
+        view.limit(allocated + bytes).position(allocated);
+        allocated += bytes;
+        //A slice has the big-endian order, whatever the order of the buffer is
+        ByteBuffer array = view.slice().order(ByteOrder.nativeOrder());
+        for (int offset = 0; offset < bytes; offset += Long.BYTES) {
+            array.putLong(offset, 0);
+        }
+        return array;
+    }
+
+    @Override
+    public void close() {
+        inUse = false;
+        if (temporary) {
+            memory = NO_MEMORY;
+        }
+    }
+
+    private void reserve(int bytes) {
+        if (memory.capacity() < bytes) {
+            int capacity = MIN_BYTES;
+            while (capacity < bytes) {
+                capacity = capacity > Integer.MAX_VALUE / 2 ? bytes : capacity * 2;
+            }
+            memory = ByteBuffer.allocateDirect(capacity);
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.mobiquityinc.packer;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//Keeps only a row of best costs and weights by capacities instead of the whole table. For each thing a bit of choice
+//per capacity tells whether the thing improves the layout of this capacity, and these bits are enough to restore
+//the best layout, so the memory is O(W) longs plus n·W bits. Rows and choices are kept off-heap in the arena of
+//the solving thread, which is reused by the next tasks, so big capacities don't load the heap and the GC.
+final class DynamicProgrammingSolver {
+
+    //Each choice takes a bit, so this limit caps choices at 128 MiB
+    static final long MAX_TABLE_CELLS = 1L << 30;
+    //Each cell of a row keeps cost and weight as longs, so this limit caps a row at 256 MiB
+    static final long MAX_ROW_CELLS = 1L << 24;
+    //Filling a shorter part of a row is cheaper than submitting it to the pool
+    private static final int MIN_PARALLEL_PART_CELLS = 1 << 12;
+    //The vector kernel if the JVM has the Vector API and the kernel works on it, the scalar one otherwise
+    private static final RowKernel ROW_KERNEL = RowKernelLoader.load();
+    //Each cell costs a couple of comparisons and writes of two longs, restoring the layout is the fixed cost
+    private static final double CELL_COST = 6.0;
+    private static final double FIXED_COST = 500.0;
+    private static final int LOG_BITS_PER_WORD = 6;
+    private static final int BITS_PER_WORD = 1 << LOG_BITS_PER_WORD;
+    private static final int WORD_MASK = BITS_PER_WORD - 1;
+
+    private DynamicProgrammingSolver() {
+        //No need to instantiate this class
+    }
+
+    static boolean isApplicable(PackagingTask packagingTask) {
+        return packagingTask.getScaledWeightLimit() >= 0 && packagingTask.getScaledWeightLimit() < MAX_ROW_CELLS
+                && countTableCells(packagingTask) <= MAX_TABLE_CELLS;
+    }
+
+    static double estimateCost(PackagingTask packagingTask) {
+        return FIXED_COST + CELL_COST * countTableCells(packagingTask);
+    }
+
+    static long countTableCells(PackagingTask packagingTask) {
+        return (packagingTask.getThingsNumber() + 1L) * (packagingTask.getScaledWeightLimit() + 1L);
+    }
+
+    static PackageLayout findBestLayout(PackagingTask packagingTask) {
+        return findBestLayout(packagingTask, ROW_KERNEL);
+    }
+
+    static PackageLayout findBestLayout(PackagingTask packagingTask, RowKernel rowKernel) {
+        checkApplicable(packagingTask);
+        int cellsInRow = (int) packagingTask.getScaledWeightLimit() + 1;
+        int wordsInRow = countWords(cellsInRow);
+        try (DirectArena arena = DirectArena.acquire(2L * cellsInRow
+                + (long) packagingTask.getThingsNumber() * wordsInRow)) {
+            //Cell c contains the best cost and weight of a layout built from things processed so far
+            //with the total weight not more than c. Before the first thing it is the empty package.
+            ByteBuffer bestCosts = arena.allocate(cellsInRow);
+            ByteBuffer bestWeights = arena.allocate(cellsInRow);
+            LongBuffer choices = arena.allocate(packagingTask.getThingsNumber() * wordsInRow).asLongBuffer();
+            //Capacities lower than the thing weight keep their layouts
+            for (int position = 0; position < packagingTask.getThingsNumber(); position++) {
+                rowKernel.addThing(bestCosts, bestWeights, cellsInRow, packagingTask.getScaledWeight(position)
+                        , packagingTask.getScaledCost(position), choices, position * wordsInRow);
+            }
+            return PackageLayout.of(packagingTask, restoreTakenPositions(choices, wordsInRow, packagingTask)
+                    , countTableCells(packagingTask));
+        }
+    }
+
+    //Cells of a row depend only on the previous row, so each row is split into parts of capacities filled by
+    //separate tasks of the pool. The row is not updated in place here, because parts read cells of each other,
+    //so the previous row is kept too. Rows are in the arena of the calling thread, and workers fill its parts.
+    static PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+        checkApplicable(packagingTask);
+        int cellsInRow = (int) packagingTask.getScaledWeightLimit() + 1;
+        int wordsInRow = countWords(cellsInRow);
+        //Parts start at word boundaries, so parts never write to the same word of choices
+        int partCells = Math.max(MIN_PARALLEL_PART_CELLS
+                , countWords((cellsInRow + pool.getParallelism() - 1) / pool.getParallelism()) * BITS_PER_WORD);
+        try (DirectArena arena = DirectArena.acquire(4L * cellsInRow
+                + (long) packagingTask.getThingsNumber() * wordsInRow)) {
+            ParallelRows rows = new ParallelRows(packagingTask, arena, cellsInRow, wordsInRow);
+            List<ForkJoinTask<?>> parts = new ArrayList<>();
+            for (int position = 0; position < packagingTask.getThingsNumber(); position++) {
+                int thingPosition = position;
+                for (int from = 0; from < cellsInRow; from += partCells) {
+                    int partFrom = from;
+                    int partTo = Math.min(cellsInRow, from + partCells);
+                    parts.add(pool.submit(() -> rows.fillPart(thingPosition, partFrom, partTo)));
+                }
+                parts.forEach(ForkJoinTask::join);
+                parts.clear();
+                rows.swap();
+            }
+            return PackageLayout.of(packagingTask, restoreTakenPositions(rows.choices, wordsInRow, packagingTask)
+                    , countTableCells(packagingTask));
+        }
+    }
+
+    private static void checkApplicable(PackagingTask packagingTask) {
+        if (!isApplicable(packagingTask)) {
+            throw new IllegalArgumentException("The task " + packagingTask
+                    + " is too big to be solved with dynamic programming");
+        }
+    }
+
+    private static int countWords(int bits) {
+        return (bits + BITS_PER_WORD - 1) / BITS_PER_WORD;
+    }
+
+    //The same criteria as in PackageLayout.isThisLayoutBetter: higher cost first, then lower weight
+    static boolean isBetter(long cost, long weight, long otherCost, long otherWeight) {
+        if (cost != otherCost) {
+            return cost > otherCost;
+        }
+        return weight < otherWeight;
+    }
+
+    //Brute force solver takes the layout with the lowest layout number among equally good ones, i.e. it prefers
+    //to leave out the thing with the highest position. So, we walk from the last thing to the first one
+    //and take a thing only if the best result could not be achieved without it, i.e. the thing has improved
+    //the layout of the remaining capacity.
+    private static BitSet restoreTakenPositions(LongBuffer choices, int wordsInRow, PackagingTask packagingTask) {
+        BitSet takenPositions = new BitSet(packagingTask.getThingsNumber());
+        int c = (int) packagingTask.getScaledWeightLimit();
+        for (int position = packagingTask.getThingsNumber() - 1; position >= 0; position--) {
+            if ((choices.get(position * wordsInRow + (c >>> LOG_BITS_PER_WORD)) & 1L << c) != 0) {
+                takenPositions.set(position);
+                c -= (int) packagingTask.getScaledWeight(position);
+            }
+        }
+        return takenPositions;
+    }
+
+    //The previous row and the row being filled, they are swapped after each thing
+    private static final class ParallelRows {
+
+        private final PackagingTask packagingTask;
+        private final int wordsInRow;
+        private final LongBuffer choices;
+        private LongBuffer previousCosts;
+        private LongBuffer previousWeights;
+        private LongBuffer costs;
+        private LongBuffer weights;
+
+        private ParallelRows(PackagingTask packagingTask, DirectArena arena, int cellsInRow, int wordsInRow) {
+            this.packagingTask = packagingTask;
+            this.wordsInRow = wordsInRow;
+            this.choices = arena.allocate(packagingTask.getThingsNumber() * wordsInRow).asLongBuffer();
+            this.previousCosts = arena.allocate(cellsInRow).asLongBuffer();
+            this.previousWeights = arena.allocate(cellsInRow).asLongBuffer();
+            this.costs = arena.allocate(cellsInRow).asLongBuffer();
+            this.weights = arena.allocate(cellsInRow).asLongBuffer();
+        }
+
+        //Fills cells of the row for capacities from the range [from, to)
+        private void fillPart(int position, int from, int to) {
+            long thingWeight = packagingTask.getScaledWeight(position);
+            long thingCost = packagingTask.getScaledCost(position);
+            int choicesOffset = position * wordsInRow;
+            int firstFittingCapacity = (int) Math.max(from, Math.min(thingWeight, to));
+            for (int c = from; c < firstFittingCapacity; c++) {
+                costs.put(c, previousCosts.get(c));
+                weights.put(c, previousWeights.get(c));
+            }
+            long choicesWord = 0;
+            for (int c = firstFittingCapacity; c < to; c++) {
+                int restCapacity = (int) (c - thingWeight);
+                long candidateCost = previousCosts.get(restCapacity) + thingCost;
+                long candidateWeight = previousWeights.get(restCapacity) + thingWeight;
+                if (isBetter(candidateCost, candidateWeight, previousCosts.get(c), previousWeights.get(c))) {
+                    costs.put(c, candidateCost);
+                    weights.put(c, candidateWeight);
+                    choicesWord |= 1L << c;
+                } else {
+                    costs.put(c, previousCosts.get(c));
+                    weights.put(c, previousWeights.get(c));
+                }
+                if ((c & WORD_MASK) == WORD_MASK || c == to - 1) {
+                    choices.put(choicesOffset + (c >>> LOG_BITS_PER_WORD), choicesWord);
+                    choicesWord = 0;
+                }
+            }
+        }
+
+        private void swap() {
+            LongBuffer filledCosts = costs;
+            LongBuffer filledWeights = weights;
+            costs = previousCosts;
+            weights = previousWeights;
+            previousCosts = filledCosts;
+            previousWeights = filledWeights;
+        }
+
+    }
+
+}
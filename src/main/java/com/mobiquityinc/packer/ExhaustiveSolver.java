@@ -0,0 +1,108 @@
+package com.mobiquityinc.packer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//Brute force search. Layouts are enumerated in the Gray code order: each next layout differs from the previous one
+//by exactly one thing, so the weight and the cost of the layout are updated with one addition or subtraction,
+//and no objects are created until the best layout is found.
+final class ExhaustiveSolver {
+
+    //Layout numbers are longs, but there is no sense to enumerate more layouts anyway
+    static final int MAX_THINGS_NUMBER = 30;
+    //More parts than workers let the pool balance the load when some workers are slower
+    private static final int SUBSPACES_PER_WORKER = 8;
+    //Each next layout costs one addition and a couple of comparisons, the layout creation is the fixed cost
+    private static final double LAYOUT_COST = 5.0;
+    private static final double FIXED_COST = 500.0;
+
+    private ExhaustiveSolver() {
+        //No need to instantiate this class
+    }
+
+    static boolean isApplicable(PackagingTask packagingTask) {
+        return packagingTask.getThingsNumber() <= MAX_THINGS_NUMBER;
+    }
+
+    static double estimateCost(PackagingTask packagingTask) {
+        return FIXED_COST + LAYOUT_COST * Math.pow(2.0, packagingTask.getThingsNumber());
+    }
+
+    static PackageLayout findBestLayout(PackagingTask packagingTask) {
+        checkApplicable(packagingTask);
+        LayoutCandidate best = searchSubspace(packagingTask, packagingTask.getThingsNumber(), 0L);
+        return PackageLayout.of(packagingTask, best.getLayoutNumber(), 1L << packagingTask.getThingsNumber());
+    }
+
+    //The space of layouts is split by values of the highest positions' bits, and each subspace is searched
+    //by a separate task of the pool
+    static PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+        checkApplicable(packagingTask);
+        int thingsNumber = packagingTask.getThingsNumber();
+        int fixedThings = Math.min(thingsNumber, floorLog2(pool.getParallelism() * SUBSPACES_PER_WORKER));
+        int freeThings = thingsNumber - fixedThings;
+        List<ForkJoinTask<LayoutCandidate>> subspaces = new ArrayList<>(1 << fixedThings);
+        for (long fixedBits = 0L; fixedBits < 1L << fixedThings; fixedBits++) {
+            long fixedLayoutNumber = fixedBits << freeThings;
+            subspaces.add(pool.submit(() -> searchSubspace(packagingTask, freeThings, fixedLayoutNumber)));
+        }
+        return PackageLayout.of(packagingTask, LayoutCandidate.joinBest(subspaces).getLayoutNumber()
+                , 1L << thingsNumber);
+    }
+
+    private static void checkApplicable(PackagingTask packagingTask) {
+        if (!isApplicable(packagingTask)) {
+            throw new IllegalArgumentException("The task " + packagingTask
+                    + " contains too many things to be solved with the brute force");
+        }
+    }
+
+    private static int floorLog2(int value) {
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value);
+    }
+
+    //Enumerates layouts which have the lowest freeThings positions arbitrary and the rest positions taken exactly
+    //as in the fixed layout number
+    private static LayoutCandidate searchSubspace(PackagingTask packagingTask, int freeThings
+            , long fixedLayoutNumber) {
+        long capacity = packagingTask.getScaledWeightLimit();
+        long cost = 0L;
+        long weight = 0L;
+        for (long restBits = fixedLayoutNumber; restBits != 0; restBits &= restBits - 1L) {
+            int position = Long.numberOfTrailingZeros(restBits);
+            cost += packagingTask.getScaledCost(position);
+            weight += packagingTask.getScaledWeight(position);
+        }
+        //Use the first layout of the subspace as a seed for determining the best layout. If it doesn't fit,
+        //it still is a seed, but worse than any fitting layout. For the whole space it is the empty package.
+        boolean seedFits = fixedLayoutNumber == 0 || weight <= capacity;
+        long bestCost = seedFits ? cost : LayoutCandidate.NO_COST;
+        long bestWeight = seedFits ? weight : 0L;
+        long bestLayoutNumber = fixedLayoutNumber;
+        long layoutNumber = fixedLayoutNumber;
+        //Number of possible layouts is 2 in power of number of things. Here we use binary shift to calculate it.
+        long numberOfPossibleLayouts = 1L << freeThings;
+        for (long step = 1L; step < numberOfPossibleLayouts; step++) {
+            //In the Gray code sequence the step number's lowest set bit is the one to flip
+            int position = Long.numberOfTrailingZeros(step);
+            layoutNumber ^= 1L << position;
+            if ((layoutNumber >> position & 1L) == 0) {
+                cost -= packagingTask.getScaledCost(position);
+                weight -= packagingTask.getScaledWeight(position);
+            } else {
+                cost += packagingTask.getScaledCost(position);
+                weight += packagingTask.getScaledWeight(position);
+            }
+            if (weight <= capacity && LayoutCandidate.isBetter(cost, weight, layoutNumber
+                    , bestCost, bestWeight, bestLayoutNumber)) {
+                bestCost = cost;
+                bestWeight = weight;
+                bestLayoutNumber = layoutNumber;
+            }
+        }
+        return new LayoutCandidate(bestCost, bestWeight, bestLayoutNumber);
+    }
+
+}
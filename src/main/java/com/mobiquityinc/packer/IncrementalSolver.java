@@ -0,0 +1,187 @@
+package com.mobiquityinc.packer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+//Solves a task which changes by a few things between solutions, e.g. when a package is re-packed after a thing is
+//added or removed. The dynamic programming table is kept between solutions: a row depends only on things before it,
+//so after a change only rows from the first changed thing are filled again, and raising the weight limit only fills
+//new columns of kept rows. Adding a thing fills a single row. Changes are applied lazily by the next solution,
+//so several changes cost as much as the one closest to the first thing.
+//The table is filled again from scratch if a new value has more decimal places than scaled values in the table.
+//Tasks too big for the table are solved from scratch by the cheapest method each time.
+//The solver is not thread-safe.
+public final class IncrementalSolver {
+
+    //All rows are kept and each cell keeps cost and weight as longs, so this limit caps the table size at 16 MiB
+    private static final long MAX_TABLE_CELLS = 1L << 20;
+
+    private final List<Thing> things;
+    private BigDecimal weightLimit;
+    //Rows are kept for things which have not changed since the last solution, the table could have more columns
+    //than the current weight limit needs if it has been lowered
+    private long[][] bestCosts = new long[1][1];
+    private long[][] bestWeights = new long[1][1];
+    private int filledRows;
+    private int filledCapacity;
+    private int tableWeightScale;
+    private int tableCostScale;
+
+    public IncrementalSolver(BigDecimal weightLimit) {
+        checkValue(weightLimit);
+        this.weightLimit = weightLimit;
+        this.things = new ArrayList<>();
+    }
+
+    IncrementalSolver(PackagingTask packagingTask) {
+        this.weightLimit = packagingTask.getWeightLimit();
+        this.things = packagingTask.getThingsToPackage();
+    }
+
+    private static void checkValue(BigDecimal value) {
+        if (value.signum() < 0 || value.scale() > PackagingTask.MAX_SCALE) {
+            throw new IllegalArgumentException("Value must be non-negative with not more than "
+                    + PackagingTask.MAX_SCALE + " decimal places, but got " + value);
+        }
+    }
+
+    public void addThing(int index, BigDecimal weight, BigDecimal cost) {
+        checkValue(weight);
+        checkValue(cost);
+        things.add(new Thing(index, weight, cost));
+    }
+
+    //Removes the first thing with the index
+    public void removeThing(int index) {
+        int position = findPosition(index);
+        things.remove(position);
+        filledRows = Math.min(filledRows, position);
+    }
+
+    public void setThingWeight(int index, BigDecimal weight) {
+        checkValue(weight);
+        int position = findPosition(index);
+        Thing thing = things.get(position);
+        things.set(position, new Thing(index, weight, thing.getCost()));
+        filledRows = Math.min(filledRows, position);
+    }
+
+    public void setWeightLimit(BigDecimal weightLimit) {
+        checkValue(weightLimit);
+        this.weightLimit = weightLimit;
+    }
+
+    //Returns indexes of the best layout in the same format as the packer writes them
+    public String solve() {
+        return findBestLayout().getIndexesString();
+    }
+
+    //Explored states are the table cells filled for this solution only
+    PackageLayout findBestLayout() {
+        PackagingTask packagingTask = new PackagingTask(weightLimit, things);
+        if (DynamicProgrammingSolver.countTableCells(packagingTask) > MAX_TABLE_CELLS) {
+            return PackagingTaskSolver.findBestLayout(packagingTask);
+        }
+        if (packagingTask.getWeightScale() != tableWeightScale || packagingTask.getCostScale() != tableCostScale) {
+            tableWeightScale = packagingTask.getWeightScale();
+            tableCostScale = packagingTask.getCostScale();
+            filledRows = 0;
+            filledCapacity = 0;
+        }
+        int thingsNumber = packagingTask.getThingsNumber();
+        int capacity = (int) packagingTask.getScaledWeightLimit();
+        long filledCells = 0L;
+        if (capacity > filledCapacity) {
+            growTable(thingsNumber + 1, capacity + 1);
+            for (int k = 1; k <= filledRows; k++) {
+                fillRow(k, packagingTask, filledCapacity + 1, capacity + 1);
+            }
+            filledCells += (long) filledRows * (capacity - filledCapacity);
+            filledCapacity = capacity;
+        } else {
+            growTable(thingsNumber + 1, filledCapacity + 1);
+        }
+        for (int k = filledRows + 1; k <= thingsNumber; k++) {
+            fillRow(k, packagingTask, 0, filledCapacity + 1);
+        }
+        filledCells += (thingsNumber - filledRows) * (filledCapacity + 1L);
+        filledRows = thingsNumber;
+        return PackageLayout.of(packagingTask
+                , restoreTakenPositions(packagingTask), filledCells);
+    }
+
+    private int findPosition(int index) {
+        for (int position = 0; position < things.size(); position++) {
+            if (things.get(position).getIndex() == index) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("There is no thing with index " + index);
+    }
+
+    //Rows and columns are added with a reserve, so adding things one by one doesn't copy the table each time.
+    //Values of new columns are filled by the caller, the first row of the empty package is always zeros.
+    private void growTable(int rows, int columns) {
+        if (rows > bestCosts.length) {
+            int newRows = Math.max(rows, 2 * bestCosts.length);
+            int oldRows = bestCosts.length;
+            bestCosts = Arrays.copyOf(bestCosts, newRows);
+            bestWeights = Arrays.copyOf(bestWeights, newRows);
+            for (int k = oldRows; k < newRows; k++) {
+                bestCosts[k] = new long[bestCosts[0].length];
+                bestWeights[k] = new long[bestCosts[0].length];
+            }
+        }
+        if (columns > bestCosts[0].length) {
+            int newColumns = Math.max(columns, 2 * bestCosts[0].length);
+            for (int k = 0; k < bestCosts.length; k++) {
+                bestCosts[k] = Arrays.copyOf(bestCosts[k], newColumns);
+                bestWeights[k] = Arrays.copyOf(bestWeights[k], newColumns);
+            }
+        }
+    }
+
+    //Fills cells of the row for capacities from the range [from, to)
+    private void fillRow(int row, PackagingTask packagingTask, int from, int to) {
+        long[] previousCosts = bestCosts[row - 1];
+        long[] previousWeights = bestWeights[row - 1];
+        long[] costs = bestCosts[row];
+        long[] weights = bestWeights[row];
+        long thingWeight = packagingTask.getScaledWeight(row - 1);
+        long thingCost = packagingTask.getScaledCost(row - 1);
+        int firstFittingCapacity = (int) Math.max(from, Math.min(thingWeight, to));
+        System.arraycopy(previousCosts, from, costs, from, firstFittingCapacity - from);
+        System.arraycopy(previousWeights, from, weights, from, firstFittingCapacity - from);
+        for (int c = firstFittingCapacity; c < to; c++) {
+            int restCapacity = (int) (c - thingWeight);
+            long candidateCost = previousCosts[restCapacity] + thingCost;
+            long candidateWeight = previousWeights[restCapacity] + thingWeight;
+            if (DynamicProgrammingSolver.isBetter(candidateCost, candidateWeight, previousCosts[c]
+                    , previousWeights[c])) {
+                costs[c] = candidateCost;
+                weights[c] = candidateWeight;
+            } else {
+                costs[c] = previousCosts[c];
+                weights[c] = previousWeights[c];
+            }
+        }
+    }
+
+    //The same tie-breaking as the brute force gives: a thing is taken only if the best result could not be achieved
+    //without it
+    private BitSet restoreTakenPositions(PackagingTask packagingTask) {
+        BitSet takenPositions = new BitSet(packagingTask.getThingsNumber());
+        int c = (int) packagingTask.getScaledWeightLimit();
+        for (int k = packagingTask.getThingsNumber(); k > 0; k--) {
+            if (bestCosts[k][c] != bestCosts[k - 1][c] || bestWeights[k][c] != bestWeights[k - 1][c]) {
+                takenPositions.set(k - 1);
+                c -= (int) packagingTask.getScaledWeight(k - 1);
+            }
+        }
+        return takenPositions;
+    }
+
+}
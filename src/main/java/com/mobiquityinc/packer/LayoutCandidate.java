@@ -0,0 +1,54 @@
+package com.mobiquityinc.packer;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+//The best layout found in a part of the search space, described by totals and the layout number (bits of taken
+//positions). Parts searched in parallel are combined by picking the best of their candidates.
+final class LayoutCandidate {
+
+    //Marks a part of the search space without any fitting layout, such candidate is worse than any real one
+    static final long NO_COST = -1L;
+
+    private final long cost;
+    private final long weight;
+    private final long layoutNumber;
+
+    LayoutCandidate(long cost, long weight, long layoutNumber) {
+        this.cost = cost;
+        this.weight = weight;
+        this.layoutNumber = layoutNumber;
+    }
+
+    //The same order as the brute force gives: higher cost first, then lower weight, then lower layout number
+    static boolean isBetter(long cost, long weight, long layoutNumber
+            , long otherCost, long otherWeight, long otherLayoutNumber) {
+        if (cost != otherCost) {
+            return cost > otherCost;
+        }
+        if (weight != otherWeight) {
+            return weight < otherWeight;
+        }
+        return layoutNumber < otherLayoutNumber;
+    }
+
+    static LayoutCandidate joinBest(List<ForkJoinTask<LayoutCandidate>> parts) {
+        LayoutCandidate best = parts.get(0).join();
+        for (int i = 1; i < parts.size(); i++) {
+            LayoutCandidate candidate = parts.get(i).join();
+            if (candidate.isBetterThan(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    boolean isBetterThan(LayoutCandidate other) {
+        return isBetter(cost, weight, layoutNumber, other.cost, other.weight, other.layoutNumber);
+    }
+
+    long getLayoutNumber() {
+        return layoutNumber;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.mobiquityinc.packer;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+//Lock-free histogram of non-negative values. Each range between powers of two is split into SUB_BUCKETS equal
+//buckets, so a fixed number of counters covers all longs and a percentile is reported with a relative error not more
+//than 1/SUB_BUCKETS. Recording never blocks, reading while recording gives a slightly inconsistent but usable view.
+final class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //Values below SUB_BUCKETS have buckets of their own, each next power of two range takes SUB_BUCKETS buckets
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(long value) {
+        long checkedValue = Math.max(0L, value);
+        counts.incrementAndGet(indexOf(checkedValue));
+        sum.add(checkedValue);
+        max.accumulate(checkedValue);
+    }
+
+    PackingMetrics.Distribution toDistribution() {
+        long[] bucketCounts = IntStream.range(0, BUCKETS).mapToLong(counts::get).toArray();
+        long count = LongStream.of(bucketCounts).sum();
+        long maxValue = max.get();
+        return new PackingMetrics.Distribution(count, count == 0L ? 0.0 : (double) sum.sum() / count
+                , maxValue, percentile(bucketCounts, count, 0.5, maxValue)
+                , percentile(bucketCounts, count, 0.9, maxValue), percentile(bucketCounts, count, 0.99, maxValue)
+                , percentile(bucketCounts, count, 0.999, maxValue));
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    //The highest value counted in the bucket
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1L;
+    }
+
+    //The value which is not less than the given part of recorded values. The bucket bound is never reported above
+    //the real maximum. Without values the rank is zero, so zero is returned from the first bucket.
+    private static long percentile(long[] bucketCounts, long count, double part, long maxValue) {
+        long rank = (long) Math.ceil(part * count);
+        long seen = 0L;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.mobiquityinc.packer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Map keeping not more than maxSize entries with the least recently used eviction. It is not thread-safe.
+final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxSize;
+
+    LruMap(int maxSize) {
+        //The access order makes the eldest entry the least recently used one
+        super(16, 0.75f, true);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+
+}
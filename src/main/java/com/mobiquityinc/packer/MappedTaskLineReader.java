@@ -0,0 +1,214 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//Reads lines right from the memory-mapped file. Big files are mapped by windows: when a line crosses the end of
+//the window, the next window starts with this line. Lines containing only ASCII characters and euro signs are
+//returned as views over the mapped bytes without decoding, other lines are decoded to strings. Malformed input is
+//reported the same way as by the UTF-8 decoder of a buffered reader.
+final class MappedTaskLineReader implements TaskLineReader {
+
+    static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private static final int NOT_FOUND = -1;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private final MappedLine line = new MappedLine();
+    private MappedByteBuffer window;
+    private long windowStart;
+    //Position of the next line in the window
+    private int position;
+
+    MappedTaskLineReader(Path inputFile, int windowSize) throws IOException {
+        this.channel = FileChannel.open(inputFile, StandardOpenOption.READ);
+        this.windowSize = windowSize;
+        try {
+            this.fileSize = channel.size();
+            this.window = map(0L, windowSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (windowStart + position == fileSize) {
+            return null;
+        }
+        int lineEnd = scanLine();
+        while (lineEnd == NOT_FOUND) {
+            remap();
+            lineEnd = scanLine();
+        }
+        line.setEnd(lineEnd);
+        position = lineEnd;
+        if (position < window.limit()) {
+            boolean windowsLineEnd = window.get(position) == CARRIAGE_RETURN && position + 1 < window.limit()
+                    && window.get(position + 1) == LINE_FEED;
+            position += windowsLineEnd ? 2 : 1;
+        }
+        return line.isDecodingNeeded() ? decode(line.start, lineEnd) : line;
+    }
+
+    //The mapping is released by the garbage collector, there is no way to unmap it explicitly in Java 8
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private MappedByteBuffer map(long start, int size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size, fileSize - start));
+    }
+
+    //The next window starts with the current line. If the line doesn't fit into the whole window,
+    //the window is made twice bigger.
+    private void remap() throws IOException {
+        long newWindowStart = windowStart + position;
+        long newWindowSize = position == 0 ? 2L * window.limit() : windowSize;
+        if (newWindowSize > Integer.MAX_VALUE) {
+            throw new IOException("The line starting at byte " + newWindowStart + " is too long");
+        }
+        window = map(newWindowStart, (int) newWindowSize);
+        windowStart = newWindowStart;
+        position = 0;
+    }
+
+    //Returns the position of the line terminator, the end of the file, or NOT_FOUND if the window ends before
+    //the line does
+    private int scanLine() {
+        line.reset(window, position);
+        int limit = window.limit();
+        boolean lastWindow = windowStart + limit == fileSize;
+        int i = position;
+        while (i < limit && window.get(i) != LINE_FEED && window.get(i) != CARRIAGE_RETURN) {
+            i += window.get(i) < 0 ? line.addNonAsciiCharacter(i) : 1;
+        }
+        if (i >= limit) {
+            return lastWindow ? limit : NOT_FOUND;
+        }
+        //The line feed after the carriage return could be in the next window
+        boolean splitLineEnd = window.get(i) == CARRIAGE_RETURN && i + 1 == limit && !lastWindow;
+        return splitLineEnd ? NOT_FOUND : i;
+    }
+
+    private String decode(int from, int to) throws CharacterCodingException {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = window.get(from + i);
+        }
+        return decoder.decode(ByteBuffer.wrap(bytes)).toString();
+    }
+
+    //The line as a sequence of chars over its bytes. The euro sign takes three bytes, so positions of euro signs
+    //are kept to translate indexes of chars to positions of bytes.
+    private static final class MappedLine implements CharSequence {
+
+        private static final char EURO_SIGN = (char) 0x20AC;
+        private static final byte[] EURO_SIGN_BYTES = {(byte) 0xE2, (byte) 0x82, (byte) 0xAC};
+        //Extra bytes of each euro sign in comparison with one byte ASCII characters
+        private static final int EURO_SIGN_EXTRA_BYTES = EURO_SIGN_BYTES.length - 1;
+
+        private ByteBuffer bytes;
+        private int start;
+        private int end;
+        private int[] euroSignIndexes = new int[16];
+        private int euroSignsNumber;
+        private boolean decodingNeeded;
+
+        private void reset(ByteBuffer bytes, int start) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = start;
+            this.euroSignsNumber = 0;
+            this.decodingNeeded = false;
+        }
+
+        //Returns the number of bytes taken by the character. Other characters than the euro sign are counted
+        //byte by byte, and such line is decoded as a whole.
+        private int addNonAsciiCharacter(int position) {
+            if (!isEuroSign(position)) {
+                decodingNeeded = true;
+                return 1;
+            }
+            if (euroSignsNumber == euroSignIndexes.length) {
+                euroSignIndexes = Arrays.copyOf(euroSignIndexes, euroSignsNumber * 2);
+            }
+            euroSignIndexes[euroSignsNumber] = position - start - EURO_SIGN_EXTRA_BYTES * euroSignsNumber;
+            euroSignsNumber++;
+            return EURO_SIGN_BYTES.length;
+        }
+
+        private boolean isEuroSign(int position) {
+            if (position + EURO_SIGN_BYTES.length > bytes.limit()) {
+                return false;
+            }
+            for (int i = 0; i < EURO_SIGN_BYTES.length; i++) {
+                if (bytes.get(position + i) != EURO_SIGN_BYTES[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void setEnd(int end) {
+            this.end = end;
+        }
+
+        private boolean isDecodingNeeded() {
+            return decodingNeeded;
+        }
+
+        @Override
+        public int length() {
+            return end - start - EURO_SIGN_EXTRA_BYTES * euroSignsNumber;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("Index " + index + " is out of the line of length " + length());
+            }
+            if (euroSignsNumber == 0) {
+                return (char) bytes.get(start + index);
+            }
+            int found = Arrays.binarySearch(euroSignIndexes, 0, euroSignsNumber, index);
+            if (found >= 0) {
+                return EURO_SIGN;
+            }
+            int euroSignsBefore = -found - 1;
+            return (char) bytes.get(start + index + EURO_SIGN_EXTRA_BYTES * euroSignsBefore);
+        }
+
+        //Only used for error messages, so there is no need to avoid decoding here
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().substring(from, to);
+        }
+
+        @Override
+        public String toString() {
+            byte[] lineBytes = new byte[end - start];
+            for (int i = 0; i < lineBytes.length; i++) {
+                lineBytes[i] = bytes.get(start + i);
+            }
+            return new String(lineBytes, StandardCharsets.UTF_8);
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.mobiquityinc.packer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+//Things are split into two halves. For each half all its subsets which fit into the package are enumerated, sorted
+//by weight and cleaned from dominated ones. Then for each subset of the second half the best fitting subset of
+//the first half is found with a pointer moving backward through the first half list.
+final class MeetInTheMiddleSolver {
+
+    //Each half contains up to 2²⁰ subsets of three longs
+    static final int MAX_THINGS_NUMBER = 40;
+    //Walking through a shorter range is cheaper than submitting it to the pool
+    private static final int MIN_PARALLEL_RANGE_SIZE = 1 << 12;
+    //Each subset is merged into the lists of its half about twice and is walked through once while combining halves.
+    //Allocations of the lists are the fixed cost.
+    private static final double SUBSET_COST = 10.0;
+    private static final double FIXED_COST = 1500.0;
+
+    private MeetInTheMiddleSolver() {
+        //No need to instantiate this class
+    }
+
+    static boolean isApplicable(PackagingTask packagingTask) {
+        return packagingTask.getScaledWeightLimit() >= 0 && packagingTask.getThingsNumber() <= MAX_THINGS_NUMBER;
+    }
+
+    //Weights of subsets in a list strictly increase, so a list could not be longer than the number of possible
+    //weights of fitting subsets
+    static double estimateCost(PackagingTask packagingTask) {
+        int half = packagingTask.getThingsNumber() / 2;
+        double possibleWeights = packagingTask.getScaledWeightLimit() + 1.0;
+        double lowerHalfSubsets = Math.min(Math.pow(2.0, half), possibleWeights);
+        double upperHalfSubsets = Math.min(Math.pow(2.0, packagingTask.getThingsNumber() - half), possibleWeights);
+        return FIXED_COST + SUBSET_COST * (lowerHalfSubsets + upperHalfSubsets);
+    }
+
+    static PackageLayout findBestLayout(PackagingTask packagingTask) {
+        checkApplicable(packagingTask);
+        int half = packagingTask.getThingsNumber() / 2;
+        SubsetList lowerHalf = SubsetList.enumerate(packagingTask, 0, half);
+        SubsetList upperHalf = SubsetList.enumerate(packagingTask, half, packagingTask.getThingsNumber());
+        LayoutCandidate best = findBestCandidate(lowerHalf, upperHalf, half, packagingTask.getScaledWeightLimit()
+                , 0, upperHalf.size);
+        return PackageLayout.of(packagingTask, best.getLayoutNumber(), lowerHalf.size + upperHalf.size);
+    }
+
+    //Halves are enumerated in parallel, then the upper half list is split into ranges combined with the lower half
+    //independently
+    static PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+        checkApplicable(packagingTask);
+        int half = packagingTask.getThingsNumber() / 2;
+        ForkJoinTask<SubsetList> lowerHalfTask = pool.submit(() -> SubsetList.enumerate(packagingTask, 0, half));
+        SubsetList upperHalf = SubsetList.enumerate(packagingTask, half, packagingTask.getThingsNumber());
+        SubsetList lowerHalf = lowerHalfTask.join();
+        long capacity = packagingTask.getScaledWeightLimit();
+        int rangeSize = Math.max(MIN_PARALLEL_RANGE_SIZE
+                , (upperHalf.size + pool.getParallelism() - 1) / pool.getParallelism());
+        List<ForkJoinTask<LayoutCandidate>> ranges = new ArrayList<>();
+        for (int from = 0; from < upperHalf.size; from += rangeSize) {
+            int rangeFrom = from;
+            int rangeTo = Math.min(upperHalf.size, from + rangeSize);
+            ranges.add(pool.submit(() -> findBestCandidate(lowerHalf, upperHalf, half, capacity, rangeFrom, rangeTo)));
+        }
+        return PackageLayout.of(packagingTask, LayoutCandidate.joinBest(ranges).getLayoutNumber()
+                , lowerHalf.size + upperHalf.size);
+    }
+
+    private static void checkApplicable(PackagingTask packagingTask) {
+        if (!isApplicable(packagingTask)) {
+            throw new IllegalArgumentException("The task " + packagingTask
+                    + " could not be solved with the meet in the middle method");
+        }
+    }
+
+    //Both lists have weights and costs strictly increasing, so the last subset of the lower half which fits into
+    //the remaining capacity is the best one. Upper half subsets are walked from the lightest one, so the remaining
+    //capacity only decreases and the lower half pointer only moves backward.
+    private static LayoutCandidate findBestCandidate(SubsetList lowerHalf, SubsetList upperHalf, int half
+            , long capacity, int upperFrom, int upperTo) {
+        //Use empty package as a seed for determining the best layout
+        long bestCost = 0L;
+        long bestWeight = 0L;
+        long bestMask = 0L;
+        int lowerIndex = lowerHalf.findLastFitting(capacity - upperHalf.weights[upperFrom]);
+        for (int upperIndex = upperFrom; upperIndex < upperTo; upperIndex++) {
+            long remainingCapacity = capacity - upperHalf.weights[upperIndex];
+            while (lowerHalf.weights[lowerIndex] > remainingCapacity) {
+                lowerIndex--;
+            }
+            long cost = upperHalf.costs[upperIndex] + lowerHalf.costs[lowerIndex];
+            long weight = upperHalf.weights[upperIndex] + lowerHalf.weights[lowerIndex];
+            long mask = upperHalf.masks[upperIndex] << half | lowerHalf.masks[lowerIndex];
+            if (LayoutCandidate.isBetter(cost, weight, mask, bestCost, bestWeight, bestMask)) {
+                bestCost = cost;
+                bestWeight = weight;
+                bestMask = mask;
+            }
+        }
+        return new LayoutCandidate(bestCost, bestWeight, bestMask);
+    }
+
+    //Subsets of things in the struct-of-arrays form. Masks contain bits for positions relative to the first
+    //thing of the half.
+    private static final class SubsetList {
+
+        private final long[] weights;
+        private final long[] costs;
+        private final long[] masks;
+        private int size;
+
+        private SubsetList(int capacity) {
+            weights = new long[capacity];
+            costs = new long[capacity];
+            masks = new long[capacity];
+        }
+
+        //The list contains only subsets which fit into the package and are not dominated: there is no other subset
+        //which is better or equal by cost and better or equal by weight. The only exception are equal subsets, then
+        //the one with the lower mask is kept, because the brute force prefers the lower layout number.
+        static SubsetList enumerate(PackagingTask packagingTask, int from, int to) {
+            long capacity = packagingTask.getScaledWeightLimit();
+            SubsetList subsets = new SubsetList(1);
+            subsets.add(0L, 0L, 0L);
+            for (int position = from; position < to; position++) {
+                long thingWeight = packagingTask.getScaledWeight(position);
+                if (thingWeight <= capacity) {
+                    subsets = subsets.mergeWithThing(thingWeight, packagingTask.getScaledCost(position)
+                            , 1L << (position - from), capacity);
+                }
+            }
+            return subsets;
+        }
+
+        //Adding the thing doesn't break the order of the list, because the thing's bit is higher than any bit
+        //in the list, so it is enough to merge the list with its copy containing the thing
+        private SubsetList mergeWithThing(long thingWeight, long thingCost, long thingBit, long capacity) {
+            SubsetList merged = new SubsetList(size * 2);
+            int withoutIndex = 0;
+            int withIndex = 0;
+            while (withoutIndex < size || withIndex < size) {
+                boolean takeWithout = withIndex == size || withoutIndex < size && precedes(
+                        weights[withoutIndex], costs[withoutIndex], masks[withoutIndex]
+                        , weights[withIndex] + thingWeight, costs[withIndex] + thingCost, masks[withIndex] | thingBit);
+                if (takeWithout) {
+                    merged.addIfNotDominated(weights[withoutIndex], costs[withoutIndex], masks[withoutIndex], capacity);
+                    withoutIndex++;
+                } else {
+                    merged.addIfNotDominated(weights[withIndex] + thingWeight, costs[withIndex] + thingCost
+                            , masks[withIndex] | thingBit, capacity);
+                    withIndex++;
+                }
+            }
+            return merged;
+        }
+
+        //Order of the list: lighter first, then more expensive, then with lower mask
+        private static boolean precedes(long weight, long cost, long mask
+                , long otherWeight, long otherCost, long otherMask) {
+            if (weight != otherWeight) {
+                return weight < otherWeight;
+            }
+            if (cost != otherCost) {
+                return cost > otherCost;
+            }
+            return mask < otherMask;
+        }
+
+        //The empty subset is always the first one, so there is at least one fitting subset for a non-negative capacity
+        private int findLastFitting(long capacity) {
+            int low = 0;
+            int high = size - 1;
+            while (low < high) {
+                int middle = (low + high + 1) >>> 1;
+                if (weights[middle] <= capacity) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+
+        //Subsets are added in the list order, so the subset is dominated if the last added one costs the same or more
+        private void addIfNotDominated(long weight, long cost, long mask, long capacity) {
+            if (weight <= capacity && (size == 0 || cost > costs[size - 1])) {
+                add(weight, cost, mask);
+            }
+        }
+
+        private void add(long weight, long cost, long mask) {
+            weights[size] = weight;
+            costs[size] = cost;
+            masks[size] = mask;
+            size++;
+        }
+
+    }
+
+}
@@ -1,60 +1,146 @@
 package com.mobiquityinc.packer;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
 
+//Indexes of taken things are kept sorted in a primitive array and the weight and cost as scaled longs, so the layout
+//takes a few objects, and BigDecimal values are created only when they are asked for
 final class PackageLayout {
 
-    private final BigDecimal weight;
-    private final BigDecimal cost;
-    private final List<Integer> thingIndexes;
+    private final long scaledWeight;
+    private final int weightScale;
+    private final long scaledCost;
+    private final int costScale;
+    private final int[] thingIndexes;
+    private final BitSet takenPositions;
+    //Number of layouts, table cells, subsets or search nodes the solver has walked through to find this layout
+    private final long exploredStates;
 
+    //Things of the collection are treated as the whole task, so all positions are taken
     PackageLayout(Collection<Thing> things) {
         BigDecimal totalThingsWeight = BigDecimal.ZERO;
         BigDecimal totalThingsCost = BigDecimal.ZERO;
-        thingIndexes = new ArrayList<>();
+        thingIndexes = new int[things.size()];
+        int position = 0;
         for (Thing thing : things) {
             totalThingsWeight = totalThingsWeight.add(thing.getWeight());
             totalThingsCost = totalThingsCost.add(thing.getCost());
-            thingIndexes.add(thing.getIndex());
+            thingIndexes[position++] = thing.getIndex();
         }
-        this.weight = totalThingsWeight;
-        this.cost = totalThingsCost;
+        this.scaledWeight = totalThingsWeight.unscaledValue().longValueExact();
+        this.weightScale = totalThingsWeight.scale();
+        this.scaledCost = totalThingsCost.unscaledValue().longValueExact();
+        this.costScale = totalThingsCost.scale();
         //Sort thing indexes to have a deterministic output
-        Collections.sort(thingIndexes);
+        Arrays.sort(thingIndexes);
+        this.takenPositions = new BitSet(things.size());
+        takenPositions.set(0, things.size());
+        this.exploredStates = 0L;
+    }
+
+    private PackageLayout(PackagingTask packagingTask, long scaledWeight, long scaledCost, int[] thingIndexes
+            , BitSet takenPositions, long exploredStates) {
+        this.scaledWeight = scaledWeight;
+        this.weightScale = packagingTask.getWeightScale();
+        this.scaledCost = scaledCost;
+        this.costScale = packagingTask.getCostScale();
+        this.thingIndexes = thingIndexes;
+        this.takenPositions = takenPositions;
+        this.exploredStates = exploredStates;
+    }
+
+    //The layout is known without any search, e.g. it is taken from a cache
+    static PackageLayout of(PackagingTask packagingTask, BitSet takenPositions) {
+        return of(packagingTask, takenPositions, 0L);
+    }
+
+    //Sums are calculated with scaled values of the task
+    static PackageLayout of(PackagingTask packagingTask, BitSet takenPositions, long exploredStates) {
+        long totalThingsWeight = 0L;
+        long totalThingsCost = 0L;
+        int[] indexes = new int[takenPositions.cardinality()];
+        int i = 0;
+        for (int position = takenPositions.nextSetBit(0); position >= 0;
+             position = takenPositions.nextSetBit(position + 1)) {
+            totalThingsWeight += packagingTask.getScaledWeight(position);
+            totalThingsCost += packagingTask.getScaledCost(position);
+            indexes[i++] = packagingTask.getIndex(position);
+        }
+        //Sort thing indexes to have a deterministic output
+        Arrays.sort(indexes);
+        return new PackageLayout(packagingTask, totalThingsWeight, totalThingsCost, indexes
+                , (BitSet) takenPositions.clone(), exploredStates);
+    }
+
+    //In the mask each bit with value 1 means that we should take a thing which position is equal to the bit position
+    static PackageLayout of(PackagingTask packagingTask, long takenPositionsMask, long exploredStates) {
+        return of(packagingTask, BitSet.valueOf(new long[]{takenPositionsMask}), exploredStates);
+    }
+
+    //Positions of taken things in the task, they allow to apply the layout to another task with the same values
+    BitSet getTakenPositions() {
+        return (BitSet) takenPositions.clone();
+    }
+
+    BigDecimal getCost() {
+        return BigDecimal.valueOf(scaledCost, costScale);
+    }
+
+    private BigDecimal getWeight() {
+        return BigDecimal.valueOf(scaledWeight, weightScale);
+    }
+
+    long getExploredStates() {
+        return exploredStates;
     }
 
     boolean isOverWeighted(BigDecimal maximumWeight) {
-        return weight.compareTo(maximumWeight) > 0;
+        return getWeight().compareTo(maximumWeight) > 0;
+    }
+
+    int getThingsNumber() {
+        return thingIndexes.length;
+    }
+
+    //Indexes are in the ascending order
+    int getThingIndex(int i) {
+        return thingIndexes[i];
     }
 
     String getIndexesString() {
-        if (thingIndexes.isEmpty()) {
+        if (thingIndexes.length == 0) {
             return "-";
         }
-        return thingIndexes.stream()
-                .map(Object::toString)
-                .collect(Collectors.joining(","));
+        StringBuilder indexes = new StringBuilder();
+        for (int i = 0; i < thingIndexes.length; i++) {
+            if (i > 0) {
+                indexes.append(',');
+            }
+            indexes.append(thingIndexes[i]);
+        }
+        return indexes.toString();
     }
 
+    //Layouts of the same task have the same scales, so BigDecimal values are compared only for other layouts
     boolean isThisLayoutBetter(PackageLayout other) {
-        int costComparisonResult = this.cost.compareTo(other.cost);
+        int costComparisonResult = costScale == other.costScale ? Long.compare(scaledCost, other.scaledCost)
+                : getCost().compareTo(other.getCost());
         if (costComparisonResult != 0) {
             return costComparisonResult > 0;
         }
-        return this.weight.compareTo(other.weight) < 0;
+        int weightComparisonResult = weightScale == other.weightScale
+                ? Long.compare(scaledWeight, other.scaledWeight) : getWeight().compareTo(other.getWeight());
+        return weightComparisonResult < 0;
     }
 
     @Override
     public String toString() {
         return "PackageLayout{"
-                + "weight=" + weight
-                + ", cost=" + cost
-                + ", thingIndexes=" + thingIndexes
+                + "weight=" + getWeight()
+                + ", cost=" + getCost()
+                + ", thingIndexes=" + Arrays.toString(thingIndexes)
                 + '}';
     }
 
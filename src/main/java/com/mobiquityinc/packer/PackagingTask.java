@@ -3,32 +3,142 @@ package com.mobiquityinc.packer;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
+//The task is kept in the fixed-point struct-of-arrays form. All weights (including the weight limit) are multiplied
+//by 10 in power of the biggest weight scale found in the task, all costs by 10 in power of the biggest cost scale.
+//After such scaling all values are integers and solvers could process them without BigDecimal arithmetic.
 final class PackagingTask {
 
-    private final BigDecimal weightLimit;
-    private final List<Thing> thingsToPackage;
+    static final int MAX_SCALE = 9;
+
+    private final long scaledWeightLimit;
+    private final int weightScale;
+    private final int costScale;
+    private final int[] indexes;
+    private final long[] scaledWeights;
+    private final long[] scaledCosts;
 
     PackagingTask(BigDecimal weightLimit, Collection<Thing> thingsToPackage) {
-        this.weightLimit = weightLimit;
-        this.thingsToPackage = new ArrayList<>(thingsToPackage);
+        int maxWeightScale = weightLimit.scale();
+        int maxCostScale = 0;
+        for (Thing thing : thingsToPackage) {
+            maxWeightScale = Math.max(maxWeightScale, thing.getWeight().scale());
+            maxCostScale = Math.max(maxCostScale, thing.getCost().scale());
+        }
+        this.weightScale = Math.max(0, maxWeightScale);
+        this.costScale = maxCostScale;
+        checkScale(weightScale);
+        checkScale(costScale);
+        this.scaledWeightLimit = toScaledLong(weightLimit, weightScale);
+        this.indexes = new int[thingsToPackage.size()];
+        this.scaledWeights = new long[thingsToPackage.size()];
+        this.scaledCosts = new long[thingsToPackage.size()];
+        int position = 0;
+        for (Thing thing : thingsToPackage) {
+            indexes[position] = thing.getIndex();
+            scaledWeights[position] = toScaledLong(thing.getWeight(), weightScale);
+            scaledCosts[position] = toScaledLong(thing.getCost(), costScale);
+            position++;
+        }
+        checkSums();
+    }
+
+    //Values are already scaled, e.g. by the parser. Arrays are not copied, so they must not be changed after that.
+    PackagingTask(long scaledWeightLimit, int weightScale, int costScale, int[] indexes, long[] scaledWeights
+            , long[] scaledCosts) {
+        checkScale(weightScale);
+        checkScale(costScale);
+        this.scaledWeightLimit = scaledWeightLimit;
+        this.weightScale = weightScale;
+        this.costScale = costScale;
+        this.indexes = indexes;
+        this.scaledWeights = scaledWeights;
+        this.scaledCosts = scaledCosts;
+        checkSums();
+    }
+
+    private static void checkScale(int scale) {
+        if (scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Maximum allowed number of decimal places is " + MAX_SCALE
+                    + ", but got " + scale);
+        }
+    }
+
+    private static long toScaledLong(BigDecimal value, int scale) {
+        try {
+            return value.movePointRight(scale).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Value " + value + " is too big", e);
+        }
+    }
+
+    //Solvers rely on the fact that no combination of things overflows long
+    private void checkSums() {
+        try {
+            long totalWeight = 0L;
+            long totalCost = 0L;
+            for (int i = 0; i < indexes.length; i++) {
+                totalWeight = Math.addExact(totalWeight, scaledWeights[i]);
+                totalCost = Math.addExact(totalCost, scaledCosts[i]);
+            }
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Total weight or cost of things is too big", e);
+        }
+    }
+
+    //Returned values don't have trailing zeros which could appear after scaling
+    private static BigDecimal toBigDecimal(long scaledValue, int scale) {
+        BigDecimal value = BigDecimal.valueOf(scaledValue, scale).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
     }
 
     BigDecimal getWeightLimit() {
-        return weightLimit;
+        return toBigDecimal(scaledWeightLimit, weightScale);
     }
 
     List<Thing> getThingsToPackage() {
-        return Collections.unmodifiableList(thingsToPackage);
+        List<Thing> things = new ArrayList<>(indexes.length);
+        for (int i = 0; i < indexes.length; i++) {
+            things.add(new Thing(indexes[i], toBigDecimal(scaledWeights[i], weightScale)
+                    , toBigDecimal(scaledCosts[i], costScale)));
+        }
+        return things;
+    }
+
+    long getScaledWeightLimit() {
+        return scaledWeightLimit;
+    }
+
+    int getWeightScale() {
+        return weightScale;
+    }
+
+    int getCostScale() {
+        return costScale;
+    }
+
+    int getThingsNumber() {
+        return indexes.length;
+    }
+
+    int getIndex(int position) {
+        return indexes[position];
+    }
+
+    long getScaledWeight(int position) {
+        return scaledWeights[position];
+    }
+
+    long getScaledCost(int position) {
+        return scaledCosts[position];
     }
 
     @Override
     public String toString() {
         return "PackagingTask{"
-                + "weightLimit=" + weightLimit
-                + ", thingsToPackage=" + thingsToPackage
+                + "weightLimit=" + getWeightLimit()
+                + ", thingsToPackage=" + getThingsToPackage()
                 + '}';
     }
 
@@ -2,123 +2,238 @@ package com.mobiquityinc.packer;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import static com.mobiquityinc.packer.TaskLineScanner.NOT_FOUND;
+import static com.mobiquityinc.packer.TaskLineScanner.TOO_BIG;
+
+//Single-pass parser of a task line. It accepts the same lines as the regular expressions used before:
+//  weight limit:  ^\h*((?:\d*\.)?\d+)\h*$
+//  thing:         \((\d{1,9})\h*,\h*((?:\d*\.)?\d+)\h*,\D*((?:\d*\.)?\d+)\h*\)
+//but parses numbers right to integer values with scales, without substrings and BigDecimal objects, which are
+//created only for error messages. Solvers work with scaled long values, so the only lines which the regular
+//expressions accept and this parser doesn't are lines with values having more than MAX_DECIMAL_PLACES significant
+//decimal places, e.g. 1.0000000001. Trailing zeros beyond MAX_DECIMAL_PLACES are dropped, so 1.50000000000 is fine.
 final class PackagingTaskParser {
 
-    private static final int MAXIMUM_THINGS_ALLOWED = 15;
-    private static final int MINIMUM_THINGS_ALLOWED = 1;
-    private static final BigDecimal MAX_WEIGHT_LIMIT = BigDecimal.valueOf(100L);
-    private static final BigDecimal MAX_THING_WEIGHT = BigDecimal.valueOf(100L);
-    private static final BigDecimal MAX_THING_COST = BigDecimal.valueOf(100L);
-    private static final String TASK_PARTS_SEPARATOR = ":";
-    private static final int TASK_PARTS_NUMBER = 2;
-    private static final Pattern WEIGHT_PART_PATTERN = Pattern.compile("^\\h*((?:\\d*\\.)?\\d+)\\h*$");
-    private static final Pattern THING_PATTERN = Pattern
-            .compile("\\((\\d)\\h*,\\h*((?:\\d*\\.)?\\d+)\\h*,\\D*((?:\\d*\\.)?\\d+)\\h*\\)");
-    private static final int OPENING_BRACE_CODEPOINT = Character.codePointAt("(", 0);
-    private static final int CLOSING_BRACE_CODEPOINT = Character.codePointAt(")", 0);
+    static final int MAXIMUM_THINGS_ALLOWED = 200;
+    static final int MINIMUM_THINGS_ALLOWED = 1;
+    static final long MAX_WEIGHT_LIMIT = 100L;
+    static final long MAX_THING_WEIGHT = 100L;
+    static final long MAX_THING_COST = 100L;
+    private static final char TASK_PARTS_SEPARATOR = ':';
+    private static final char OPENING_BRACE = '(';
+    private static final char CLOSING_BRACE = ')';
+    //Solvers work with scaled integer values, so too precise values are not supported
+    private static final int MAX_DECIMAL_PLACES = PackagingTask.MAX_SCALE;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L
+            , 10_000_000L, 100_000_000L, 1_000_000_000L};
+    private static final int INITIAL_THINGS_CAPACITY = 16;
     private static final String PARSE_ERROR_SEPARATOR = "; ";
 
-    private PackagingTaskParser() {
-        //No need to instantiate this class
+    private final TaskLineScanner scanner;
+    private final List<String> parseErrorMessages = new ArrayList<>();
+    private long weightLimit;
+    private int weightLimitScale;
+    private int thingsNumber;
+    private int[] indexes = new int[INITIAL_THINGS_CAPACITY];
+    private long[] weights = new long[INITIAL_THINGS_CAPACITY];
+    private int[] weightScales = new int[INITIAL_THINGS_CAPACITY];
+    private long[] costs = new long[INITIAL_THINGS_CAPACITY];
+    private int[] costScales = new int[INITIAL_THINGS_CAPACITY];
+
+    private PackagingTaskParser(CharSequence taskLine) {
+        this.scanner = new TaskLineScanner(taskLine);
     }
 
-    static PackagingTask parse(String taskLine) throws InvalidTaskStringException {
-        String[] taskLineArray = taskLine.split(TASK_PARTS_SEPARATOR);
-        if (taskLineArray.length != TASK_PARTS_NUMBER) {
+    static PackagingTask parse(CharSequence taskLine) throws InvalidTaskStringException {
+        return new PackagingTaskParser(taskLine).parse();
+    }
+
+    //The line is split by the separator the same way as String.split does: trailing empty parts are dropped,
+    //and exactly two parts must remain
+    private PackagingTask parse() throws InvalidTaskStringException {
+        int lineLength = scanner.length();
+        int separatorPosition = scanner.indexOf(TASK_PARTS_SEPARATOR, 0, lineLength);
+        int thingsPartEnd = separatorPosition == lineLength ? lineLength
+                : scanner.indexOf(TASK_PARTS_SEPARATOR, separatorPosition + 1, lineLength);
+        if (separatorPosition == lineLength || thingsPartEnd == separatorPosition + 1
+                || !scanner.containsOnly(TASK_PARTS_SEPARATOR, thingsPartEnd, lineLength)) {
             throw new InvalidTaskStringException("The packaging task string must contain weight limit,"
                 + " separator ':' and things data");
         }
-        List<String> parseErrorMessages = new ArrayList<>();
-        BigDecimal weightLimit = parseWeightLimit(taskLineArray[0], parseErrorMessages);
-        List<Thing> things = parseThings(taskLineArray[1], parseErrorMessages);
+        parseWeightLimit(0, separatorPosition);
+        parseThings(separatorPosition + 1, thingsPartEnd);
         if (!parseErrorMessages.isEmpty()) {
             throw new InvalidTaskStringException(String.join(PARSE_ERROR_SEPARATOR, parseErrorMessages));
         }
-        return new PackagingTask(weightLimit, things);
+        return createTask();
     }
 
-    private static BigDecimal parseWeightLimit(String weightPart, List<String> errorMessages) {
-        Matcher matcher = WEIGHT_PART_PATTERN.matcher(weightPart);
-        if (!matcher.matches()) {
-            errorMessages.add("Failed to parse '" + weightPart + "' to the weight limit."
-                    + " Value must be a positive decimal number with optional fraction part");
-            return BigDecimal.ZERO;
-        }
-        BigDecimal weightLimit = new BigDecimal(matcher.group(1));
-        if (weightLimit.compareTo(MAX_WEIGHT_LIMIT) > 0) {
-            errorMessages.add("Maximum allowed package weight limit is "
-                + MAX_WEIGHT_LIMIT + ", but got " + weightLimit);
+    private void parseWeightLimit(int from, int to) {
+        int numberStart = scanner.skipHorizontalWhitespaces(from, to);
+        int numberEnd = scanner.findNumberEnd(numberStart, to);
+        int partEnd = scanner.skipHorizontalWhitespaces(numberEnd, to);
+        if (partEnd != to) {
+            parseErrorMessages.add("Failed to parse '" + scanner.substring(from, to) + "' to the weight limit"
+                    + atColumn(numberEnd == NOT_FOUND ? numberStart : partEnd)
+                    + ". Value must be a positive decimal number with optional fraction part");
+            return;
         }
-        return weightLimit;
+        int valueEnd = scanner.trimTrailingZeros(numberStart, numberEnd, MAX_DECIMAL_PLACES);
+        weightLimit = scanner.parseUnscaledValue(numberStart, valueEnd);
+        weightLimitScale = scanner.getScale(numberStart, valueEnd);
+        checkMaximum("package weight limit", MAX_WEIGHT_LIMIT, numberStart, valueEnd);
+        checkDecimalPlaces(numberStart, valueEnd);
     }
 
-    private static List<Thing> parseThings(String thingsPart, List<String> errorMessages) {
-        Optional<Integer> bracePairsCount = checkBracePairs(thingsPart, errorMessages);
-        if (!bracePairsCount.isPresent()) {
+    //Thing definitions are searched the same way as Matcher.find does: from each opening brace, and after a found
+    //definition the search continues from its end
+    private void parseThings(int from, int to) {
+        int bracePairsCount = countBracePairs(from, to);
+        if (bracePairsCount == NOT_FOUND) {
             //No sense to continue parsing if braces are not in balance
-            return Collections.emptyList();
-        }
-        int expectedThingsNumber = bracePairsCount.get();
-        Matcher matcher = THING_PATTERN.matcher(thingsPart);
-        List<Thing> result = new ArrayList<>();
-        while (matcher.find()) {
-            boolean valid = true;
-            int index = Integer.parseInt(matcher.group(1));
-            BigDecimal weight = new BigDecimal(matcher.group(2));
-            if (weight.compareTo(MAX_THING_WEIGHT) > 0) {
-                valid = false;
-                errorMessages.add("Maximum allowed thing weight is " + MAX_THING_WEIGHT + ", but got " + weight);
-            }
-            BigDecimal cost = new BigDecimal(matcher.group(3));
-            if (cost.compareTo(MAX_THING_COST) > 0) {
-                valid = false;
-                errorMessages.add("Maximum allowed thing cost is " + MAX_THING_COST + ", but got " + cost);
-            }
-            if (valid) {
-                result.add(new Thing(index, weight, cost));
-            }
+            return;
+        }
+        int position = scanner.indexOf(OPENING_BRACE, from, to);
+        while (position < to) {
+            int thingEnd = parseThing(position, to);
+            position = scanner.indexOf(OPENING_BRACE, thingEnd == NOT_FOUND ? position + 1 : thingEnd, to);
         }
-        if (result.size() != expectedThingsNumber) {
-            errorMessages.add("Found " + result.size()
-                    + " valid thing definitions: '" + result + "' in string '"
-                    + thingsPart + "', but there are "
-                    + expectedThingsNumber + " brace pairs. Each brace pair must contain a valid thing definition");
-            return result;
-        }
-        if (result.size() < MINIMUM_THINGS_ALLOWED || result.size() > MAXIMUM_THINGS_ALLOWED) {
-            errorMessages.add("Found " + result.size()
-                    + " valid thing definitions: '" + result + "' in string '"
-                    + thingsPart + "', but allowed quantity is "
+        if (thingsNumber != bracePairsCount) {
+            parseErrorMessages.add("Found " + thingsNumber
+                    + " valid thing definitions: '" + getThings() + "' in string '"
+                    + scanner.substring(from, to) + "', but there are "
+                    + bracePairsCount + " brace pairs. Each brace pair must contain a valid thing definition");
+            return;
+        }
+        if (thingsNumber < MINIMUM_THINGS_ALLOWED || thingsNumber > MAXIMUM_THINGS_ALLOWED) {
+            parseErrorMessages.add("Found " + thingsNumber
+                    + " valid thing definitions: '" + getThings() + "' in string '"
+                    + scanner.substring(from, to) + "', but allowed quantity is "
                     + MINIMUM_THINGS_ALLOWED + "-" + MAXIMUM_THINGS_ALLOWED);
         }
-        return result;
     }
 
-    private static Optional<Integer> checkBracePairs(String thingsPart, List<String> errorMessages) {
-        int stringLength = thingsPart.codePointCount(0, thingsPart.length());
+    //Parses the thing definition starting with the opening brace at the position provided. Returns the position
+    //after the closing brace or NOT_FOUND if there is no thing definition at the position.
+    private int parseThing(int from, int to) {
+        int indexStart = from + 1;
+        int indexEnd = scanner.findIndexEnd(indexStart, to);
+        int weightStart = scanner.skipValuesSeparator(indexEnd, to);
+        int weightEnd = scanner.findNumberEnd(weightStart, to);
+        int costStart = scanner.findCostStart(scanner.skipValuesSeparator(weightEnd, to), to);
+        int costEnd = scanner.findNumberEnd(costStart, to);
+        int thingEnd = scanner.skipClosingBrace(costEnd, to);
+        if (thingEnd == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int weightValueEnd = scanner.trimTrailingZeros(weightStart, weightEnd, MAX_DECIMAL_PLACES);
+        int costValueEnd = scanner.trimTrailingZeros(costStart, costEnd, MAX_DECIMAL_PLACES);
+        boolean valid = checkMaximum("thing weight", MAX_THING_WEIGHT, weightStart, weightValueEnd);
+        valid = checkMaximum("thing cost", MAX_THING_COST, costStart, costValueEnd) && valid;
+        valid = checkDecimalPlaces(weightStart, weightValueEnd) && valid;
+        valid = checkDecimalPlaces(costStart, costValueEnd) && valid;
+        if (valid) {
+            addThing((int) scanner.parseUnscaledValue(indexStart, indexEnd), weightStart, weightValueEnd
+                    , costStart, costValueEnd);
+        }
+        return thingEnd;
+    }
+
+    private void addThing(int index, int weightStart, int weightEnd, int costStart, int costEnd) {
+        if (thingsNumber == indexes.length) {
+            int capacity = indexes.length * 2;
+            indexes = Arrays.copyOf(indexes, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+            weightScales = Arrays.copyOf(weightScales, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+            costScales = Arrays.copyOf(costScales, capacity);
+        }
+        indexes[thingsNumber] = index;
+        weights[thingsNumber] = scanner.parseUnscaledValue(weightStart, weightEnd);
+        weightScales[thingsNumber] = scanner.getScale(weightStart, weightEnd);
+        costs[thingsNumber] = scanner.parseUnscaledValue(costStart, costEnd);
+        costScales[thingsNumber] = scanner.getScale(costStart, costEnd);
+        thingsNumber++;
+    }
+
+    //Valid things are only needed as objects for error messages
+    private List<Thing> getThings() {
+        List<Thing> things = new ArrayList<>(thingsNumber);
+        for (int i = 0; i < thingsNumber; i++) {
+            things.add(new Thing(indexes[i], BigDecimal.valueOf(weights[i], weightScales[i])
+                    , BigDecimal.valueOf(costs[i], costScales[i])));
+        }
+        return things;
+    }
+
+    //All weights are brought to the biggest scale found among weights, all costs to the biggest scale of costs
+    private PackagingTask createTask() {
+        int weightScale = weightLimitScale;
+        int costScale = 0;
+        for (int i = 0; i < thingsNumber; i++) {
+            weightScale = Math.max(weightScale, weightScales[i]);
+            costScale = Math.max(costScale, costScales[i]);
+        }
+        long[] scaledWeights = new long[thingsNumber];
+        long[] scaledCosts = new long[thingsNumber];
+        for (int i = 0; i < thingsNumber; i++) {
+            scaledWeights[i] = weights[i] * POWERS_OF_TEN[weightScale - weightScales[i]];
+            scaledCosts[i] = costs[i] * POWERS_OF_TEN[costScale - costScales[i]];
+        }
+        return new PackagingTask(weightLimit * POWERS_OF_TEN[weightScale - weightLimitScale], weightScale, costScale
+                , Arrays.copyOf(indexes, thingsNumber), scaledWeights, scaledCosts);
+    }
+
+    //Values which don't fit into long or are too precise are compared as BigDecimal, they are not valid anyway
+    private boolean checkMaximum(String valueName, long maxValue, int from, int to) {
+        long unscaledValue = scanner.parseUnscaledValue(from, to);
+        int scale = scanner.getScale(from, to);
+        boolean exceeds = unscaledValue == TOO_BIG || scale > MAX_DECIMAL_PLACES
+                ? scanner.toBigDecimal(from, to).compareTo(BigDecimal.valueOf(maxValue)) > 0
+                : unscaledValue > maxValue * POWERS_OF_TEN[scale];
+        if (exceeds) {
+            parseErrorMessages.add("Maximum allowed " + valueName + " is " + maxValue
+                    + ", but got " + scanner.toBigDecimal(from, to) + atColumn(from));
+        }
+        return !exceeds;
+    }
+
+    private boolean checkDecimalPlaces(int from, int to) {
+        if (scanner.getScale(from, to) > MAX_DECIMAL_PLACES) {
+            parseErrorMessages.add("Maximum allowed number of decimal places is " + MAX_DECIMAL_PLACES
+                    + ", but got " + scanner.toBigDecimal(from, to) + atColumn(from));
+            return false;
+        }
+        return true;
+    }
+
+    //Chars are compared instead of codepoints, because braces are never a part of a surrogate pair
+    private int countBracePairs(int from, int to) {
         int openingBraceCount = 0;
         int closingBraceCount = 0;
-        for (int i = 0; i < stringLength; i++) {
-            //Compare codepoints instead of chars, because string could contain unicode symbols
-            if (thingsPart.codePointAt(i) == OPENING_BRACE_CODEPOINT) {
+        for (int i = from; i < to; i++) {
+            char character = scanner.charAt(i);
+            if (character == OPENING_BRACE) {
                 openingBraceCount++;
-            }
-            if (thingsPart.codePointAt(i) == CLOSING_BRACE_CODEPOINT) {
+            } else if (character == CLOSING_BRACE) {
                 closingBraceCount++;
             }
         }
         if (openingBraceCount != closingBraceCount) {
-            errorMessages.add("Parser found " + openingBraceCount + " opening braces and " + closingBraceCount
-                + " closing braces in the things string '" + thingsPart + "', but all braces must be paired");
-            return Optional.empty();
+            parseErrorMessages.add("Parser found " + openingBraceCount + " opening braces and " + closingBraceCount
+                + " closing braces in the things string '" + scanner.substring(from, to)
+                + "', but all braces must be paired");
+            return NOT_FOUND;
         }
-        return Optional.of(openingBraceCount);
+        return openingBraceCount;
+    }
+
+    //Users prefer columns numbering starting from 1, the same as for lines
+    private static String atColumn(int position) {
+        return " at column " + (position + 1);
     }
 
 }
@@ -2,56 +2,149 @@ package com.mobiquityinc.packer;
 
 import com.mobiquityinc.exception.APIException;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 public final class Packer {
 
-    private static final String RESULTS_SEPARATOR = System.lineSeparator();
-    private static final String LINE_PARSING_ERROR_SEPARATOR = System.lineSeparator();
-
     private Packer() {
         //No need to instantiate this class
     }
 
     public static String pack(String filePath) throws APIException {
-        List<PackagingTask> tasks = parseInputFile(filePath);
-        return resolvePackagingTasks(tasks);
+        StringWriter results = new StringWriter();
+        pack(Paths.get(filePath), results);
+        return results.toString();
     }
 
-    private static List<PackagingTask> parseInputFile(String filePath) throws APIException {
-        List<String> taskLines;
-        try {
-            taskLines = Files.readAllLines(Paths.get(filePath));
-        } catch (IOException e) {
-            throw new APIException("Failed to read a file '" + filePath + "'", e);
-        }
-        List<PackagingTask> parsedTasks = new ArrayList<>();
-        List<String> parsingErrors = new ArrayList<>();
-        for (int i = 0; i < taskLines.size(); i++) {
-            try {
-                parsedTasks.add(PackagingTaskParser.parse(taskLines.get(i)));
-            } catch (InvalidTaskStringException e) {
-                //Usually users prefer file lines numbering starting from 1
-                parsingErrors.add("Failed to parse line " + (i + 1) + ": " + e.getMessage());
-            }
-        }
-        if (!parsingErrors.isEmpty()) {
-            throw new APIException(String.join(LINE_PARSING_ERROR_SEPARATOR, parsingErrors));
-        }
-        return parsedTasks;
+    //Reads the file line by line and writes the result for each line as soon as it is solved, so only one task
+    //is kept in memory. If a line could not be parsed, nothing is written anymore, but remaining lines are still
+    //parsed to report all errors at once.
+    public static void pack(Path inputFile, Writer output) throws APIException {
+        //Tasks are solved right in the calling thread
+        pack(inputFile, output, Runnable::run, 1);
+    }
+
+    //The same as the sequential version, but tasks are solved by the executor provided. Not more than
+    //maxTasksInFlight tasks are submitted and not written yet, so the memory consumption stays bounded.
+    //Results are written in the order of lines.
+    public static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight)
+            throws APIException {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        pack(inputFile, output, executor, maxTasksInFlight, PackagingTaskSolver::findBestLayout);
+    }
+
+    //The same as the parallel version, but solutions are taken from the cache provided if the same task has been
+    //already solved. The cache could be shared by several calls.
+    public static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , SolutionCache solutionCache) throws APIException {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        pack(inputFile, output, executor, maxTasksInFlight
+                , task -> solutionCache.findBestLayout(task, PackagingTaskSolver::findBestLayout));
+    }
+
+    //Tasks are solved one by one, but the search of each task is split among workers of the pool. This suits files
+    //with a few huge tasks better than solving different tasks in parallel.
+    public static void pack(Path inputFile, Writer output, ForkJoinPool solverPool) throws APIException {
+        pack(inputFile, output, Runnable::run, 1, task -> PackagingTaskSolver.findBestLayout(task, solverPool));
+    }
+
+    //The same as the parallel version, but each task is solved with the cheapest of the allowed methods instead of
+    //all built-in ones. If none of the allowed methods could solve a task, e.g. the branch and bound is not allowed,
+    //the packing throws an IllegalArgumentException naming the task and the allowed methods.
+    public static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , Set<SolvingMethod> allowedMethods) throws APIException {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        SolverSelector solverSelector = new SolverSelector(allowedMethods);
+        pack(inputFile, output, executor, maxTasksInFlight, solverSelector::findBestLayout);
+    }
+
+    //The same as the version splitting each task among workers of the pool, but with the allowed methods only
+    public static void pack(Path inputFile, Writer output, ForkJoinPool solverPool, Set<SolvingMethod> allowedMethods)
+            throws APIException {
+        SolverSelector solverSelector = new SolverSelector(allowedMethods);
+        pack(inputFile, output, Runnable::run, 1, task -> solverSelector.findBestLayout(task, solverPool));
+    }
+
+    //The same as the parallel version, but each line is measured and the measurements are added to the metrics
+    //provided. The metrics could be shared by several calls.
+    public static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , PackingMetrics metrics) throws APIException {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        pack(inputFile, output, executor, maxTasksInFlight
+                , task -> SolverSelector.ALL_METHODS.findBestLayout(task, metrics), metrics);
     }
 
-    private static String resolvePackagingTasks(List<PackagingTask> tasks) {
-        return tasks.stream()
-                .map(PackagingTaskSolver::findBestLayout)
-                //After the last result also should be a separator
-                .map(layout -> layout.getIndexesString() + RESULTS_SEPARATOR)
-                .collect(Collectors.joining());
+    //The same as the parallel version, but a task which could not be solved within the budget gets the best layout
+    //found so far, so the time of each line is predictable. Tasks which fit into the budget get the same results.
+    public static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , SolvingBudget budget) throws APIException {
+        pack(inputFile, output, executor, maxTasksInFlight, budget, PackingMetrics.DISABLED);
+    }
+
+    //The same as the version with the budget, but each line is measured, and lines which search was stopped by the
+    //budget are counted by the metrics together with gaps between costs of their layouts and proven upper bounds
+    public static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , SolvingBudget budget, PackingMetrics metrics) throws APIException {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        pack(inputFile, output, executor, maxTasksInFlight, task -> {
+            AnytimeLayout layout = SolverSelector.ALL_METHODS.findBestLayout(task, budget);
+            metrics.recordAnytimeLayout(task, layout);
+            return layout.getLayout();
+        }, metrics);
+    }
+
+    private static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , Function<PackagingTask, PackageLayout> solver) throws APIException {
+        pack(inputFile, output, executor, maxTasksInFlight, solver, PackingMetrics.DISABLED);
+    }
+
+    private static void pack(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , Function<PackagingTask, PackageLayout> solver, PackingMetrics metrics) throws APIException {
+        new PackingPipeline(inputFile, output, executor, maxTasksInFlight, solver, metrics).pack();
+    }
+
+    //Packs the file without blocking the calling thread: reading, solving and writing are done by tasks of the
+    //executor provided. When maxTasksInFlight tasks are submitted and not written yet, the reading continues only
+    //after the oldest of them is solved, so no thread waits for solvers and the memory consumption stays bounded.
+    //The future completes with the same APIException the blocking version throws.
+    public static CompletableFuture<String> packAsync(String filePath, Executor executor, int maxTasksInFlight) {
+        StringWriter results = new StringWriter();
+        return packAsync(Paths.get(filePath), results, executor, maxTasksInFlight)
+                .thenApply(packed -> results.toString());
+    }
+
+    //The same as the version returning results as a string, but results are written to the writer provided. Writes
+    //are done by tasks of the executor one after another.
+    public static CompletableFuture<Void> packAsync(Path inputFile, Writer output, Executor executor
+            , int maxTasksInFlight) {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        return new PackingPipeline(inputFile, output, executor, maxTasksInFlight, PackagingTaskSolver::findBestLayout
+                , PackingMetrics.DISABLED).packAsync();
+    }
+
+    //The same as the asynchronous version writing to the writer, but solutions are taken from the cache provided if
+    //the same task has been already solved
+    public static CompletableFuture<Void> packAsync(Path inputFile, Writer output, Executor executor
+            , int maxTasksInFlight, SolutionCache solutionCache) {
+        checkMaxTasksInFlight(maxTasksInFlight);
+        return new PackingPipeline(inputFile, output, executor, maxTasksInFlight
+                , task -> solutionCache.findBestLayout(task, PackagingTaskSolver::findBestLayout)
+                , PackingMetrics.DISABLED).packAsync();
+    }
+
+    private static void checkMaxTasksInFlight(int maxTasksInFlight) {
+        if (maxTasksInFlight <= 0) {
+            throw new IllegalArgumentException("At least one task in flight must be allowed, but got "
+                    + maxTasksInFlight);
+        }
     }
 
 }
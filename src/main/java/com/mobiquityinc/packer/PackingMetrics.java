@@ -0,0 +1,383 @@
+package com.mobiquityinc.packer;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+//Collects measurements of each packed line: times of parsing, solving and writing of the result, the number of
+//things, the solving method and the number of states it has explored. Lines solved within a budget are also measured
+//by how far their layouts could be from the best ones. Recording is lock-free, so the metrics could
+//be shared by parallel calls and read at any moment. The metrics are an MXBean and could be registered in
+//an MBean server. Without metrics the packer uses the disabled instance, which doesn't even read the clock.
+public final class PackingMetrics implements PackingMetricsMXBean {
+
+    static final PackingMetrics DISABLED = new PackingMetrics(false);
+
+    //Relative gaps are recorded as integers in millionths of the cost upper bound
+    private static final double GAP_UNITS = 1_000_000.0;
+
+    private final boolean enabled;
+    private final LongAdder invalidLines = new LongAdder();
+    private final LogHistogram parseTimes = new LogHistogram();
+    private final LogHistogram solveTimes = new LogHistogram();
+    private final LogHistogram formatTimes = new LogHistogram();
+    private final LogHistogram thingsNumbers = new LogHistogram();
+    private final LogHistogram exploredStates = new LogHistogram();
+    private final ConcurrentMap<String, LongAdder> solvingMethods = new ConcurrentHashMap<>();
+    private final AtomicReference<SlowLine> slowestLine = new AtomicReference<>();
+    private final LongAdder approximateLines = new LongAdder();
+    private final LogHistogram relativeGaps = new LogHistogram();
+    private final AtomicReference<ApproximateTask> widestGapTask = new AtomicReference<>();
+
+    public PackingMetrics() {
+        this(true);
+    }
+
+    private PackingMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return new Snapshot(this);
+    }
+
+    //Returns the start time for recording methods, or zero if the metrics are disabled
+    long startTiming() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    void recordParsing(long startTime) {
+        if (enabled) {
+            parseTimes.record(System.nanoTime() - startTime);
+        }
+    }
+
+    void recordInvalidLine() {
+        if (enabled) {
+            invalidLines.increment();
+        }
+    }
+
+    void recordSolvingMethod(String solvingMethod) {
+        if (enabled) {
+            solvingMethods.computeIfAbsent(solvingMethod, method -> new LongAdder()).increment();
+        }
+    }
+
+    void recordSolving(long startTime, Path inputFile, long lineNumber, PackagingTask packagingTask
+            , PackageLayout layout) {
+        if (!enabled) {
+            return;
+        }
+        long solveTime = System.nanoTime() - startTime;
+        solveTimes.record(solveTime);
+        thingsNumbers.record(packagingTask.getThingsNumber());
+        exploredStates.record(layout.getExploredStates());
+        //The slowest line changes rarely, so the line object is created only when it does
+        SlowLine slowest = slowestLine.get();
+        while (slowest == null || solveTime > slowest.getSolveTime()) {
+            SlowLine line = new SlowLine(inputFile.toString(), lineNumber, packagingTask.getThingsNumber()
+                    , solveTime);
+            if (slowestLine.compareAndSet(slowest, line)) {
+                return;
+            }
+            slowest = slowestLine.get();
+        }
+    }
+
+    //Optimal layouts have no gap, so only layouts of searches stopped by the budget are recorded
+    void recordAnytimeLayout(PackagingTask packagingTask, AnytimeLayout layout) {
+        if (!enabled || layout.isOptimal()) {
+            return;
+        }
+        approximateLines.increment();
+        double relativeGap = layout.getRelativeGap();
+        relativeGaps.record(Math.round(relativeGap * GAP_UNITS));
+        ApproximateTask widest = widestGapTask.get();
+        while (widest == null || relativeGap > widest.getRelativeGap()) {
+            ApproximateTask task = new ApproximateTask(packagingTask.getThingsNumber(), layout.getLayout().getCost()
+                    , layout.getCostUpperBound(), relativeGap);
+            if (widestGapTask.compareAndSet(widest, task)) {
+                return;
+            }
+            widest = widestGapTask.get();
+        }
+    }
+
+    void recordFormatting(long startTime) {
+        if (enabled) {
+            formatTimes.record(System.nanoTime() - startTime);
+        }
+    }
+
+    //Immutable view of the metrics at some moment. Times are in nanoseconds.
+    public static final class Snapshot {
+
+        private final long invalidLines;
+        private final Distribution parseTimes;
+        private final Distribution solveTimes;
+        private final Distribution formatTimes;
+        private final Distribution thingsNumbers;
+        private final Distribution exploredStates;
+        private final Map<String, Long> solvingMethods;
+        private final SlowLine slowestLine;
+        private final long approximateLines;
+        private final Distribution relativeGaps;
+        private final ApproximateTask widestGapTask;
+
+        private Snapshot(PackingMetrics metrics) {
+            this.invalidLines = metrics.invalidLines.sum();
+            this.parseTimes = metrics.parseTimes.toDistribution();
+            this.solveTimes = metrics.solveTimes.toDistribution();
+            this.formatTimes = metrics.formatTimes.toDistribution();
+            this.thingsNumbers = metrics.thingsNumbers.toDistribution();
+            this.exploredStates = metrics.exploredStates.toDistribution();
+            Map<String, Long> methodCounts = new TreeMap<>();
+            metrics.solvingMethods.forEach((method, count) -> methodCounts.put(method, count.sum()));
+            this.solvingMethods = Collections.unmodifiableMap(methodCounts);
+            this.slowestLine = metrics.slowestLine.get();
+            this.approximateLines = metrics.approximateLines.sum();
+            this.relativeGaps = metrics.relativeGaps.toDistribution();
+            this.widestGapTask = metrics.widestGapTask.get();
+        }
+
+        //Lines which results have been written. Copies of a task from the same file are solved once, so they are
+        //counted here, but not in solve times.
+        public long getPackedLines() {
+            return formatTimes.getCount();
+        }
+
+        public long getInvalidLines() {
+            return invalidLines;
+        }
+
+        public Distribution getParseTimes() {
+            return parseTimes;
+        }
+
+        //Tasks taken from a cache are solved almost instantly, so they are counted here as well
+        public Distribution getSolveTimes() {
+            return solveTimes;
+        }
+
+        public Distribution getFormatTimes() {
+            return formatTimes;
+        }
+
+        public Distribution getThingsNumbers() {
+            return thingsNumbers;
+        }
+
+        //Layouts, table cells, subsets or search nodes walked through by the solving method
+        public Distribution getExploredStates() {
+            return exploredStates;
+        }
+
+        //Numbers of tasks solved with each method by method names
+        public Map<String, Long> getSolvingMethods() {
+            return solvingMethods;
+        }
+
+        //The line which took the longest time to solve, or null if no line has been solved yet
+        public SlowLine getSlowestLine() {
+            return slowestLine;
+        }
+
+        //Lines which search was stopped by the solving budget, so their layouts could be not the best ones
+        public long getApproximateLines() {
+            return approximateLines;
+        }
+
+        //Gaps between the cost upper bound and the cost of approximate lines in millionths of the bound
+        public Distribution getRelativeGaps() {
+            return relativeGaps;
+        }
+
+        //The approximate task which layout could be the farthest from the best one, or null if there is no such task
+        public ApproximateTask getWidestGapTask() {
+            return widestGapTask;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{"
+                    + "invalidLines=" + invalidLines
+                    + ", parseTimes=" + parseTimes
+                    + ", solveTimes=" + solveTimes
+                    + ", formatTimes=" + formatTimes
+                    + ", thingsNumbers=" + thingsNumbers
+                    + ", exploredStates=" + exploredStates
+                    + ", solvingMethods=" + solvingMethods
+                    + ", slowestLine=" + slowestLine
+                    + ", approximateLines=" + approximateLines
+                    + ", relativeGaps=" + relativeGaps
+                    + ", widestGapTask=" + widestGapTask
+                    + '}';
+        }
+
+    }
+
+    //Summary of recorded values. Percentiles are approximate, they could be up to 1/8 higher than exact ones.
+    public static final class Distribution {
+
+        private final long count;
+        private final double mean;
+        private final long max;
+        private final long median;
+        private final long percentile90;
+        private final long percentile99;
+        private final long percentile999;
+
+        Distribution(long count, double mean, long max, long median, long percentile90, long percentile99
+                , long percentile999) {
+            this.count = count;
+            this.mean = mean;
+            this.max = max;
+            this.median = median;
+            this.percentile90 = percentile90;
+            this.percentile99 = percentile99;
+            this.percentile999 = percentile999;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getMedian() {
+            return median;
+        }
+
+        public long getPercentile90() {
+            return percentile90;
+        }
+
+        public long getPercentile99() {
+            return percentile99;
+        }
+
+        public long getPercentile999() {
+            return percentile999;
+        }
+
+        @Override
+        public String toString() {
+            return "Distribution{"
+                    + "count=" + count
+                    + ", mean=" + mean
+                    + ", max=" + max
+                    + ", median=" + median
+                    + ", percentile90=" + percentile90
+                    + ", percentile99=" + percentile99
+                    + ", percentile999=" + percentile999
+                    + '}';
+        }
+
+    }
+
+    //The line of the input file with the time it took to solve its task
+    public static final class SlowLine {
+
+        private final String file;
+        private final long lineNumber;
+        private final int thingsNumber;
+        private final long solveTime;
+
+        private SlowLine(String file, long lineNumber, int thingsNumber, long solveTime) {
+            this.file = file;
+            this.lineNumber = lineNumber;
+            this.thingsNumber = thingsNumber;
+            this.solveTime = solveTime;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public int getThingsNumber() {
+            return thingsNumber;
+        }
+
+        public long getSolveTime() {
+            return solveTime;
+        }
+
+        @Override
+        public String toString() {
+            return "SlowLine{"
+                    + "file=" + file
+                    + ", lineNumber=" + lineNumber
+                    + ", thingsNumber=" + thingsNumber
+                    + ", solveTime=" + solveTime
+                    + '}';
+        }
+
+    }
+
+    //A task solved within a budget with the cost of its layout and the proven upper bound of the best cost
+    public static final class ApproximateTask {
+
+        private final int thingsNumber;
+        private final BigDecimal cost;
+        private final BigDecimal costUpperBound;
+        private final double relativeGap;
+
+        private ApproximateTask(int thingsNumber, BigDecimal cost, BigDecimal costUpperBound, double relativeGap) {
+            this.thingsNumber = thingsNumber;
+            this.cost = cost;
+            this.costUpperBound = costUpperBound;
+            this.relativeGap = relativeGap;
+        }
+
+        public int getThingsNumber() {
+            return thingsNumber;
+        }
+
+        public BigDecimal getCost() {
+            return cost;
+        }
+
+        public BigDecimal getCostUpperBound() {
+            return costUpperBound;
+        }
+
+        public BigDecimal getGap() {
+            return costUpperBound.subtract(cost);
+        }
+
+        //The gap relative to the upper bound
+        public double getRelativeGap() {
+            return relativeGap;
+        }
+
+        @Override
+        public String toString() {
+            return "ApproximateTask{"
+                    + "thingsNumber=" + thingsNumber
+                    + ", cost=" + cost
+                    + ", costUpperBound=" + costUpperBound
+                    + ", relativeGap=" + relativeGap
+                    + '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.mobiquityinc.packer;
+
+//Management interface of packing metrics, so they could be watched with JConsole or any other JMX client
+public interface PackingMetricsMXBean {
+
+    PackingMetrics.Snapshot getSnapshot();
+
+}
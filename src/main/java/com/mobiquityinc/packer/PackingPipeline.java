@@ -0,0 +1,227 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+//Packing of one file. Tasks are read and submitted to the executor, and their results are written in the order of
+//lines. Not more than maxTasksInFlight tasks are submitted and not written yet, so the memory consumption stays
+//bounded. When the queue is full, the blocking packing waits for the oldest task in the calling thread, and the
+//asynchronous packing continues reading in a task of the executor after the oldest task is solved, so no thread is
+//blocked while tasks are being solved. If a line could not be parsed, nothing is written anymore, but remaining lines
+//are still parsed to report all errors at once.
+//Steps of the packing run one after another, so the state is not shared by threads at the same time.
+final class PackingPipeline {
+
+    static final String LINE_PARSING_ERROR_PREFIX = "Failed to parse line ";
+
+    private static final String LINE_PARSING_ERROR_SEPARATOR = System.lineSeparator();
+    private static final int DISTINCT_TASKS = 1024;
+
+    private final Path inputFile;
+    private final Writer output;
+    private final ResultEncoder encoder;
+    private final Executor executor;
+    private final int maxTasksInFlight;
+    private final Function<PackagingTask, PackageLayout> solver;
+    private final PackingMetrics metrics;
+    private final Deque<CompletableFuture<PackageLayout>> tasksInFlight;
+    //Each distinct task of recent lines is solved once, its copies wait for the same solution
+    private final Map<TaskKey, CompletableFuture<PackageLayout>> distinctTasks = new LruMap<>(DISTINCT_TASKS);
+    private final List<String> parsingErrors = new ArrayList<>();
+    private int lineNumber;
+    private boolean moreTasks = true;
+
+    PackingPipeline(Path inputFile, Writer output, Executor executor, int maxTasksInFlight
+            , Function<PackagingTask, PackageLayout> solver, PackingMetrics metrics) {
+        this.inputFile = inputFile;
+        this.output = output;
+        this.encoder = new ResultEncoder(output, ResultEncoder.DEFAULT_BUFFER_SIZE);
+        this.executor = executor;
+        this.maxTasksInFlight = maxTasksInFlight;
+        this.solver = solver;
+        this.metrics = metrics;
+        this.tasksInFlight = new ArrayDeque<>(maxTasksInFlight);
+    }
+
+    //Exceptions of solvers are thrown as they are, the same as the asynchronous packing completes with them
+    void pack() throws APIException {
+        try (TaskReader reader = TaskReader.open(inputFile)) {
+            readTasks(reader);
+            while (!tasksInFlight.isEmpty()) {
+                //Results encoded so far are written before waiting for the solver
+                writeEncodedResults();
+                writeResult(tasksInFlight.pollFirst().join());
+                readTasks(reader);
+            }
+        } catch (IOException e) {
+            throw new APIException("Failed to read a file '" + inputFile + "'", e);
+        } catch (CompletionException e) {
+            //Solvers and the executor throw unchecked exceptions only
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        finish();
+    }
+
+    //The future completes exceptionally with the same APIException the blocking packing throws, or with the
+    //exception of a solver, the executor or the writer. Each step catches everything it could throw, so the future
+    //is always completed and the reader is always closed.
+    CompletableFuture<Void> packAsync() {
+        CompletableFuture<Void> packing = new CompletableFuture<>();
+        try {
+            executor.execute(() -> startPacking(packing));
+        } catch (RuntimeException | Error e) {
+            packing.completeExceptionally(e);
+        }
+        return packing;
+    }
+
+    private void startPacking(CompletableFuture<Void> packing) {
+        TaskReader reader;
+        try {
+            reader = TaskReader.open(inputFile);
+        } catch (IOException e) {
+            packing.completeExceptionally(new APIException("Failed to read a file '" + inputFile + "'", e));
+            return;
+        } catch (RuntimeException | Error e) {
+            packing.completeExceptionally(e);
+            return;
+        }
+        continuePacking(reader, packing);
+    }
+
+    private void continuePacking(TaskReader reader, CompletableFuture<Void> packing) {
+        try {
+            readTasks(reader);
+            if (tasksInFlight.isEmpty()) {
+                reader.close();
+                finish();
+                packing.complete(null);
+            } else {
+                writeEncodedResults();
+                //A failed task is rethrown by the next step, when its result is to be written. The next step itself
+                //doesn't throw, so its stage fails only if the executor rejects it after this step has returned.
+                tasksInFlight.peekFirst().handleAsync((layout, failure) -> {
+                    continuePacking(reader, packing);
+                    return null;
+                }, executor).exceptionally(failure -> {
+                    closeAfterFailure(reader, packing
+                            , failure instanceof CompletionException ? failure.getCause() : failure);
+                    return null;
+                });
+            }
+        } catch (IOException e) {
+            closeAfterFailure(reader, packing, new APIException("Failed to read a file '" + inputFile + "'", e));
+        } catch (CompletionException e) {
+            closeAfterFailure(reader, packing, e.getCause());
+        } catch (APIException | RuntimeException | Error e) {
+            closeAfterFailure(reader, packing, e);
+        }
+    }
+
+    private static void closeAfterFailure(TaskReader reader, CompletableFuture<Void> packing, Throwable failure) {
+        try {
+            reader.close();
+        } catch (IOException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+        packing.completeExceptionally(failure);
+    }
+
+    //Writes results which are ready and reads tasks until the queue is full or there are no more tasks
+    private void readTasks(TaskReader reader) throws IOException, APIException {
+        writeSolvedResults();
+        while (moreTasks && tasksInFlight.size() < maxTasksInFlight) {
+            readTask(reader);
+            writeSolvedResults();
+        }
+    }
+
+    private void readTask(TaskReader reader) throws IOException {
+        //Usually users prefer file lines numbering starting from 1, records of binary files are numbered the same
+        lineNumber++;
+        try {
+            long parseStartTime = metrics.startTiming();
+            PackagingTask task = reader.readTask();
+            moreTasks = task != null;
+            if (moreTasks) {
+                metrics.recordParsing(parseStartTime);
+            }
+            if (moreTasks && parsingErrors.isEmpty()) {
+                submit(task);
+            }
+        } catch (InvalidTaskStringException e) {
+            metrics.recordInvalidLine();
+            parsingErrors.add(LINE_PARSING_ERROR_PREFIX + lineNumber + ": " + e.getMessage());
+        }
+    }
+
+    private void submit(PackagingTask task) {
+        int taskLineNumber = lineNumber;
+        TaskKey key = new TaskKey(task);
+        CompletableFuture<PackageLayout> solution = distinctTasks.get(key);
+        if (solution == null) {
+            solution = CompletableFuture.supplyAsync(() -> {
+                long solveStartTime = metrics.startTiming();
+                PackageLayout layout = solver.apply(task);
+                metrics.recordSolving(solveStartTime, inputFile, taskLineNumber, task, layout);
+                return layout;
+            }, executor);
+            distinctTasks.put(key, solution);
+            tasksInFlight.add(solution);
+        } else {
+            //The same task could have other thing's indexes, so the layout is applied to this task
+            tasksInFlight.add(solution.thenApply(layout -> PackageLayout.of(task, layout.getTakenPositions())));
+        }
+    }
+
+    //Writes results from the head of the queue while they are ready
+    private void writeSolvedResults() throws APIException {
+        while (!tasksInFlight.isEmpty() && tasksInFlight.peekFirst().isDone()) {
+            writeResult(tasksInFlight.pollFirst().join());
+        }
+    }
+
+    private void writeResult(PackageLayout layout) throws APIException {
+        long formatStartTime = metrics.startTiming();
+        try {
+            encoder.encode(layout);
+        } catch (IOException e) {
+            throw new APIException("Failed to write a packaging result", e);
+        }
+        metrics.recordFormatting(formatStartTime);
+    }
+
+    private void writeEncodedResults() throws APIException {
+        try {
+            encoder.writeBuffer();
+        } catch (IOException e) {
+            throw new APIException("Failed to write a packaging result", e);
+        }
+    }
+
+    //All tasks left in flight were from lines before the first non-valid one, so their results have been written
+    private void finish() throws APIException {
+        writeEncodedResults();
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new APIException("Failed to flush packaging results", e);
+        }
+        if (!parsingErrors.isEmpty()) {
+            throw new APIException(String.join(LINE_PARSING_ERROR_SEPARATOR, parsingErrors));
+        }
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Long-running packer listening on a loopback port, so a warm JVM with a shared solution cache serves many calls
+//instead of starting a new JVM for each file. Each line of a connection is a request: either a task line, which
+//is answered with a single result line, or "FILE <path>", which is answered with result lines of the file and an
+//empty line. Paths are resolved against the base directory and files outside it are not packed. Errors are answered
+//with lines starting with "ERROR ", and they never contain lines of requests or files, only line numbers of files.
+//Requests could be pipelined: a client could send many requests without waiting, they are solved in parallel and
+//answered in the order they were sent. Connections are served by virtual threads if the JVM has them, otherwise by a
+//pool of platform threads. Each connection has a reading and a writing thread, so solver threads don't write.
+public final class PackingServer implements Closeable {
+
+    static final String FILE_REQUEST_PREFIX = "FILE ";
+    static final String ERROR_RESPONSE_PREFIX = "ERROR ";
+    static final String TASK_PARSING_ERROR = "Failed to parse the task line";
+    static final String SOLVING_ERROR = "Failed to solve the request";
+    static final String FILE_PACKING_ERROR = "Failed to pack the file";
+
+    //Responses are a network protocol, so they don't depend on the platform line separator
+    private static final char RESPONSE_SEPARATOR = '\n';
+    private static final int CONNECTIONS_BACKLOG = 128;
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+    private static final Pattern LINE_PARSING_ERROR = Pattern.compile(Pattern.quote(
+            PackingPipeline.LINE_PARSING_ERROR_PREFIX) + "\\d+");
+
+    private final ServerSocket serverSocket;
+    private final BaseDirectory baseDirectory;
+    private final ExecutorService connectionExecutor;
+    private final Executor solverExecutor;
+    private final int maxTasksInFlight;
+    private final SolutionCache solutionCache;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    private PackingServer(ServerSocket serverSocket, BaseDirectory baseDirectory, Executor solverExecutor
+            , int maxTasksInFlight, SolutionCache solutionCache) {
+        this.serverSocket = serverSocket;
+        this.baseDirectory = baseDirectory;
+        this.connectionExecutor = newConnectionExecutor();
+        this.solverExecutor = solverExecutor;
+        this.maxTasksInFlight = maxTasksInFlight;
+        this.solutionCache = solutionCache;
+    }
+
+    //Usage: PackingServer <port> <base directory>. The server runs until the JVM is stopped.
+    public static void main(String[] args) throws IOException {
+        start(Integer.parseInt(args[0]), Paths.get(args[1]), ForkJoinPool.commonPool()
+                , 2 * Runtime.getRuntime().availableProcessors(), new SolutionCache(DEFAULT_CACHE_SIZE));
+    }
+
+    //Listens on the loopback address only, the port 0 means any free port. Only files in the base directory could be
+    //packed. Tasks are solved by the executor provided, not more than maxTasksInFlight requests of each connection are
+    //solved and not answered yet, so a fast client could not exhaust the memory. The cache is shared by all
+    //connections.
+    public static PackingServer start(int port, Path baseDirectory, Executor solverExecutor, int maxTasksInFlight
+            , SolutionCache solutionCache) throws IOException {
+        if (maxTasksInFlight <= 0) {
+            throw new IllegalArgumentException("At least one task in flight must be allowed, but got "
+                    + maxTasksInFlight);
+        }
+        BaseDirectory allowedFiles = new BaseDirectory(baseDirectory);
+        PackingServer server = new PackingServer(new ServerSocket(port, CONNECTIONS_BACKLOG
+                , InetAddress.getLoopbackAddress()), allowedFiles, solverExecutor, maxTasksInFlight, solutionCache);
+        server.connectionExecutor.execute(server::acceptConnections);
+        return server;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    //Stops accepting connections and closes open ones, requests in flight are not answered
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : connections) {
+            connection.close();
+        }
+        connectionExecutor.shutdown();
+    }
+
+    //Virtual threads appeared in Java 21, so they are looked up by reflection to keep the code compatible with Java 8
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void acceptConnections() {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket connection = serverSocket.accept();
+                connections.add(connection);
+                connectionExecutor.execute(() -> serve(connection));
+            }
+        } catch (IOException | RejectedExecutionException e) {
+            //Accepting fails when the server is being closed. Any other failure stops the server too, so clients
+            //see refused connections instead of hanging ones.
+            closeAfterFailure(e);
+        }
+    }
+
+    private void closeAfterFailure(Exception failure) {
+        try {
+            close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void serve(Socket connection) {
+        try {
+            //A failed response would break the order of the following ones, so it is answered as an error
+            new ServerConnection(connection, connectionExecutor, request -> respond(request)
+                    .exceptionally(failure -> toErrorResponse(SOLVING_ERROR)), maxTasksInFlight).serve();
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private CompletableFuture<String> respond(String request) {
+        if (request.startsWith(FILE_REQUEST_PREFIX)) {
+            return packFile(request.substring(FILE_REQUEST_PREFIX.length()));
+        }
+        try {
+            PackagingTask task = PackagingTaskParser.parse(request);
+            return CompletableFuture.supplyAsync(() -> solutionCache
+                    .findBestLayout(task, PackagingTaskSolver::findBestLayout).getIndexesString() + RESPONSE_SEPARATOR
+                    , solverExecutor);
+        } catch (InvalidTaskStringException e) {
+            return CompletableFuture.completedFuture(toErrorResponse(TASK_PARSING_ERROR));
+        }
+    }
+
+    //The file is packed asynchronously, so no connection thread waits for its tasks
+    private CompletableFuture<String> packFile(String file) {
+        StringWriter response = new StringWriter();
+        CompletableFuture<Void> packing;
+        try {
+            packing = Packer.packAsync(baseDirectory.resolve(file), response, solverExecutor, maxTasksInFlight
+                    , solutionCache);
+        } catch (APIException e) {
+            return CompletableFuture.completedFuture(toErrorResponse(BaseDirectory.FILE_NOT_FOUND_MESSAGE)
+                    + RESPONSE_SEPARATOR);
+        }
+        return packing.handle((packed, failure) -> {
+            //Results of lines before the first non-valid one are answered anyway, as they are written by the packer
+            if (failure != null) {
+                response.write(toFileErrorResponse(failure));
+            }
+            response.write(RESPONSE_SEPARATOR);
+            return response.toString().replace(System.lineSeparator(), String.valueOf(RESPONSE_SEPARATOR));
+        });
+    }
+
+    //Messages of the packer quote invalid lines, so only their numbers are answered
+    private static String toFileErrorResponse(Throwable failure) {
+        if (!(failure instanceof APIException)) {
+            return toErrorResponse(FILE_PACKING_ERROR);
+        }
+        StringBuilder response = new StringBuilder();
+        for (String line : failure.getMessage().split("\\R")) {
+            Matcher lineParsingError = LINE_PARSING_ERROR.matcher(line);
+            response.append(toErrorResponse(lineParsingError.lookingAt() ? lineParsingError.group()
+                    : FILE_PACKING_ERROR));
+        }
+        return response.toString();
+    }
+
+    private static String toErrorResponse(String message) {
+        return ERROR_RESPONSE_PREFIX + message + RESPONSE_SEPARATOR;
+    }
+
+}
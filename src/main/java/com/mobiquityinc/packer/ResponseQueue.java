@@ -0,0 +1,78 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.Socket;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+//Responses of one connection in the order of requests. The reading thread of the connection adds futures of
+//responses, and the writing thread of the connection waits for each of them and writes it to the socket, so threads
+//solving tasks never block on a slow client. If a response could not be written, the connection is closed and the
+//rest responses are dropped, but still taken from the queue, so the reading thread is never blocked forever.
+final class ResponseQueue {
+
+    private static final CompletableFuture<String> NO_MORE_RESPONSES = CompletableFuture.completedFuture("");
+
+    private final BlockingQueue<CompletableFuture<String>> responses = new LinkedBlockingQueue<>();
+    private final Semaphore responsesInFlight;
+
+    ResponseQueue(int maxResponsesInFlight) {
+        this.responsesInFlight = new Semaphore(maxResponsesInFlight);
+    }
+
+    //Waits while maxResponsesInFlight responses are not written yet, so a fast client could not exhaust the memory.
+    //The response must not complete exceptionally.
+    void add(CompletableFuture<String> response) throws InterruptedException {
+        responsesInFlight.acquire();
+        responses.add(response);
+    }
+
+    //The writing thread stops after responses added before
+    void close() {
+        responses.add(NO_MORE_RESPONSES);
+    }
+
+    //Runs in the writing thread of the connection until the queue is closed. Responses are flushed when the next one
+    //is not ready yet or is the last one, so small responses are not delayed and ready ones are sent together.
+    void writeAll(Socket socket, Writer output) {
+        boolean writable = true;
+        try {
+            for (CompletableFuture<String> response = responses.take(); !NO_MORE_RESPONSES.equals(response)
+                    ; response = responses.take()) {
+                String text = response.join();
+                writable = writable && write(socket, output, text);
+                responsesInFlight.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            closeSocket(socket, e);
+        }
+    }
+
+    private boolean write(Socket socket, Writer output, String response) {
+        try {
+            output.write(response);
+            CompletableFuture<String> nextResponse = responses.peek();
+            if (nextResponse == null || !nextResponse.isDone() || NO_MORE_RESPONSES.equals(nextResponse)) {
+                output.flush();
+            }
+            return true;
+        } catch (IOException e) {
+            //The reading of requests stops too, as the socket is closed
+            closeSocket(socket, e);
+            return false;
+        }
+    }
+
+    private static void closeSocket(Socket socket, Exception failure) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+}
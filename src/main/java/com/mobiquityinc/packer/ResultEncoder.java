@@ -0,0 +1,86 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+//Encodes results right into a reusable buffer of characters, so a result is written without any allocation: indexes
+//are taken from the primitive array of the layout and their digits are put to the buffer one by one. The buffer is
+//written to the output when it is full or when it is asked to, e.g. before the packer waits for a solver, so results
+//are not delayed by the buffering.
+final class ResultEncoder {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 13;
+
+    private static final char[] RESULTS_SEPARATOR = System.lineSeparator().toCharArray();
+    private static final char NO_THINGS = '-';
+    private static final char INDEXES_SEPARATOR = ',';
+    //A sign and ten digits of an int
+    private static final int MAX_INT_CHARS = 11;
+    private static final int RADIX = 10;
+
+    private final Writer output;
+    private final char[] buffer;
+    private int length;
+
+    ResultEncoder(Writer output, int bufferSize) {
+        if (bufferSize < MAX_INT_CHARS) {
+            throw new IllegalArgumentException("The buffer must take at least " + MAX_INT_CHARS
+                    + " characters, but got " + bufferSize);
+        }
+        this.output = output;
+        this.buffer = new char[bufferSize];
+    }
+
+    //After the last result also should be a separator
+    void encode(PackageLayout layout) throws IOException {
+        if (layout.getThingsNumber() == 0) {
+            put(NO_THINGS);
+        }
+        for (int i = 0; i < layout.getThingsNumber(); i++) {
+            if (i > 0) {
+                put(INDEXES_SEPARATOR);
+            }
+            putInt(layout.getThingIndex(i));
+        }
+        for (char separatorChar : RESULTS_SEPARATOR) {
+            put(separatorChar);
+        }
+    }
+
+    //Writes encoded results to the output, but doesn't flush the output
+    void writeBuffer() throws IOException {
+        if (length > 0) {
+            output.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+
+    private void put(char character) throws IOException {
+        if (length == buffer.length) {
+            writeBuffer();
+        }
+        buffer[length++] = character;
+    }
+
+    //Digits are put from the lowest one, so the number of digits is counted first
+    private void putInt(int value) throws IOException {
+        if (buffer.length - length < MAX_INT_CHARS) {
+            writeBuffer();
+        }
+        long rest = value;
+        if (rest < 0) {
+            buffer[length++] = '-';
+            rest = -rest;
+        }
+        int digits = 1;
+        for (long power = RADIX; power <= rest; power *= RADIX) {
+            digits++;
+        }
+        length += digits;
+        for (int i = length - 1; i >= length - digits; i--) {
+            buffer[i] = (char) ('0' + rest % RADIX);
+            rest /= RADIX;
+        }
+    }
+
+}
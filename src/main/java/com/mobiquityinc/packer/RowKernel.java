@@ -0,0 +1,15 @@
+package com.mobiquityinc.packer;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+//Adds a thing to the row of best costs and weights of the dynamic programming. Cells are updated in place from the
+//highest capacity down to the thing weight, and the bit of each capacity which layout the thing improves is set in
+//choices, in the row of words starting at choicesOffset. Words of choices are written whole, words of capacities
+//lower than the thing weight are not written. Rows are arrays of longs in the native byte order.
+interface RowKernel {
+
+    void addThing(ByteBuffer costs, ByteBuffer weights, int cellsInRow, long thingWeight, long thingCost
+            , LongBuffer choices, int choicesOffset);
+
+}
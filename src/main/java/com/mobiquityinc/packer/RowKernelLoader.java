@@ -0,0 +1,56 @@
+package com.mobiquityinc.packer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+//The vector kernel is compiled only by newer JDKs and needs the incubating jdk.incubator.vector module, so it is
+//looked up by reflection. The incubating API changes between JDK versions, e.g. methods loading vectors from byte
+//buffers were removed in JDK 19, so a missing method fails only when the kernel is run. That is why the kernel is
+//used only after it has filled a probe row the same way as the scalar kernel, otherwise the scalar kernel is used.
+final class RowKernelLoader {
+
+    private static final String VECTOR_KERNEL_CLASS = "com.mobiquityinc.packer.VectorRowKernel";
+    //Long enough for several vector blocks, a partial word of choices and cells filled one by one
+    private static final int PROBE_CELLS = 150;
+    private static final long[][] PROBE_THINGS = {{5, 7}, {3, 4}, {1, 2}, {64, 30}};
+
+    private RowKernelLoader() {
+        //No need to instantiate this class
+    }
+
+    static RowKernel load() {
+        return load(VECTOR_KERNEL_CLASS);
+    }
+
+    static RowKernel load(String kernelClass) {
+        RowKernel scalarKernel = new ScalarRowKernel();
+        try {
+            RowKernel kernel = (RowKernel) Class.forName(kernelClass).getDeclaredConstructor().newInstance();
+            return Arrays.equals(fillProbeRow(kernel), fillProbeRow(scalarKernel)) ? kernel : scalarKernel;
+        } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException | IllegalAccessException
+                | InvocationTargetException | LinkageError | RuntimeException e) {
+            return scalarKernel;
+        }
+    }
+
+    //Returns costs, weights and choices of the row after all probe things are added
+    private static long[] fillProbeRow(RowKernel kernel) {
+        int words = (PROBE_CELLS + Long.SIZE - 1) / Long.SIZE;
+        ByteBuffer costs = ByteBuffer.allocateDirect(PROBE_CELLS * Long.BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer weights = ByteBuffer.allocateDirect(PROBE_CELLS * Long.BYTES).order(ByteOrder.nativeOrder());
+        LongBuffer choices = LongBuffer.allocate(PROBE_THINGS.length * words);
+        for (int position = 0; position < PROBE_THINGS.length; position++) {
+            kernel.addThing(costs, weights, PROBE_CELLS, PROBE_THINGS[position][0], PROBE_THINGS[position][1]
+                    , choices, position * words);
+        }
+        long[] row = new long[2 * PROBE_CELLS + choices.capacity()];
+        costs.asLongBuffer().get(row, 0, PROBE_CELLS);
+        weights.asLongBuffer().get(row, PROBE_CELLS, PROBE_CELLS);
+        choices.get(row, 2 * PROBE_CELLS, choices.capacity());
+        return row;
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.mobiquityinc.packer;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+//Updates cells one by one. Bits are collected in a local word, which is stored when its lowest capacity is passed.
+final class ScalarRowKernel implements RowKernel {
+
+    private static final int LOG_BITS_PER_WORD = 6;
+    private static final int WORD_MASK = (1 << LOG_BITS_PER_WORD) - 1;
+
+    @Override
+    public void addThing(ByteBuffer costs, ByteBuffer weights, int cellsInRow, long thingWeight, long thingCost
+            , LongBuffer choices, int choicesOffset) {
+        LongBuffer bestCosts = costs.asLongBuffer();
+        LongBuffer bestWeights = weights.asLongBuffer();
+        long choicesWord = 0;
+        //The cell of the rest capacity is lower, so it still keeps the layout without the thing
+        for (int c = cellsInRow - 1; c >= thingWeight; c--) {
+            int restCapacity = (int) (c - thingWeight);
+            long candidateCost = bestCosts.get(restCapacity) + thingCost;
+            long candidateWeight = bestWeights.get(restCapacity) + thingWeight;
+            if (DynamicProgrammingSolver.isBetter(candidateCost, candidateWeight, bestCosts.get(c)
+                    , bestWeights.get(c))) {
+                bestCosts.put(c, candidateCost);
+                bestWeights.put(c, candidateWeight);
+                choicesWord |= 1L << c;
+            }
+            if ((c & WORD_MASK) == 0 || c == thingWeight) {
+                choices.put(choicesOffset + (c >>> LOG_BITS_PER_WORD), choicesWord);
+                choicesWord = 0;
+            }
+        }
+    }
+
+}
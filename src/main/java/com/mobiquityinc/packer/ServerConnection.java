@@ -0,0 +1,60 @@
+package com.mobiquityinc.packer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+//A connection of the packing server. Its reading thread reads requests while previous ones are being solved, and its
+//writing thread writes responses in the order of requests, as soon as each of them and all before it are ready.
+final class ServerConnection {
+
+    private final Socket socket;
+    private final ExecutorService connectionExecutor;
+    //Responses must not complete exceptionally
+    private final Function<String, CompletableFuture<String>> responder;
+    private final int maxTasksInFlight;
+
+    ServerConnection(Socket socket, ExecutorService connectionExecutor
+            , Function<String, CompletableFuture<String>> responder, int maxTasksInFlight) {
+        this.socket = socket;
+        this.connectionExecutor = connectionExecutor;
+        this.responder = responder;
+        this.maxTasksInFlight = maxTasksInFlight;
+    }
+
+    //Runs in the reading thread until the client stops sending requests and all responses are written, or until
+    //the connection is closed. The socket is closed in the end.
+    void serve() {
+        ResponseQueue responseQueue = new ResponseQueue(maxTasksInFlight);
+        try (Socket connection = socket;
+             BufferedReader requests = new BufferedReader(new InputStreamReader(connection.getInputStream()
+                     , StandardCharsets.UTF_8));
+             Writer responses = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream()
+                     , StandardCharsets.UTF_8))) {
+            //Small responses should not wait for more data to be sent together
+            connection.setTcpNoDelay(true);
+            Future<?> writing = connectionExecutor.submit(() -> responseQueue.writeAll(connection, responses));
+            for (String request = requests.readLine(); request != null; request = requests.readLine()) {
+                responseQueue.add(responder.apply(request));
+            }
+            responseQueue.close();
+            writing.get();
+        } catch (IOException | InterruptedException | ExecutionException | RejectedExecutionException e) {
+            //The client has gone or the server is closed, there is nobody to answer. The writing thread drops
+            //responses being solved and stops.
+            responseQueue.close();
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.mobiquityinc.packer;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//Bounded cache of solved tasks with the least recently used eviction. Tasks are equal for the cache if they have
+//the same weight limit and the same weights and costs in the same order, thing's indexes don't matter. The order of
+//things is kept, because equally good layouts are chosen by positions of things. Layouts are cached as taken
+//positions, so on a hit they are applied to indexes of the task being solved.
+//The cache is safe to be shared by tasks solved in parallel.
+public final class SolutionCache {
+
+    private final Map<TaskKey, BitSet> solutions;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public SolutionCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, but got " + maxSize);
+        }
+        this.solutions = new LruMap<>(maxSize);
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public int size() {
+        synchronized (solutions) {
+            return solutions.size();
+        }
+    }
+
+    //The task is solved out of the lock, so the same task could be solved twice by parallel threads, but other
+    //tasks are not blocked
+    PackageLayout findBestLayout(PackagingTask packagingTask, Function<PackagingTask, PackageLayout> solver) {
+        TaskKey key = new TaskKey(packagingTask);
+        BitSet takenPositions;
+        synchronized (solutions) {
+            takenPositions = solutions.get(key);
+        }
+        if (takenPositions != null) {
+            hitCount.increment();
+            return PackageLayout.of(packagingTask, takenPositions);
+        }
+        missCount.increment();
+        PackageLayout layout = solver.apply(packagingTask);
+        BitSet solvedPositions = layout.getTakenPositions();
+        synchronized (solutions) {
+            solutions.put(key, solvedPositions);
+        }
+        return layout;
+    }
+
+}
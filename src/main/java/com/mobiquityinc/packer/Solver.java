@@ -0,0 +1,20 @@
+package com.mobiquityinc.packer;
+
+import java.util.concurrent.ForkJoinPool;
+
+//Method of finding the best layout. All methods find the same layout for the same task, but they differ in tasks
+//they could solve and in time they take, so a method is chosen for each task by estimated costs.
+interface Solver {
+
+    boolean isApplicable(PackagingTask packagingTask);
+
+    //Estimated time of solving the task in nanoseconds on a usual machine. Estimates are only compared with each
+    //other, so they should be comparable between methods rather than precise.
+    double estimateCost(PackagingTask packagingTask);
+
+    PackageLayout findBestLayout(PackagingTask packagingTask);
+
+    //The search of the task is split among workers of the pool
+    PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool);
+
+}
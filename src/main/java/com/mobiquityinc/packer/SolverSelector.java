@@ -0,0 +1,89 @@
+package com.mobiquityinc.packer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+//Chooses the solver with the lowest estimated cost from applicable ones for each task, so tasks of a file are
+//solved by different methods depending on the number of things and the scaled weight limit.
+final class SolverSelector {
+
+    static final SolverSelector ALL_METHODS = new SolverSelector(EnumSet.allOf(SolvingMethod.class));
+
+    private final List<Solver> solvers;
+
+    SolverSelector(Collection<? extends Solver> solvers) {
+        if (solvers.isEmpty()) {
+            throw new IllegalArgumentException("At least one solving method must be allowed");
+        }
+        this.solvers = new ArrayList<>(solvers);
+    }
+
+    //The branch and bound solves any task, so only sets of solvers without it could fail to solve a task. Methods
+    //which are not allowed are never used, even if none of the allowed ones is applicable.
+    Solver select(PackagingTask packagingTask) {
+        Solver cheapest = null;
+        double cheapestCost = Double.POSITIVE_INFINITY;
+        for (Solver solver : solvers) {
+            if (solver.isApplicable(packagingTask)) {
+                double cost = solver.estimateCost(packagingTask);
+                if (cost < cheapestCost) {
+                    cheapest = solver;
+                    cheapestCost = cost;
+                }
+            }
+        }
+        if (cheapest == null) {
+            throw new IllegalArgumentException("None of the allowed methods " + solvers + " could solve the task "
+                    + packagingTask);
+        }
+        return cheapest;
+    }
+
+    PackageLayout findBestLayout(PackagingTask packagingTask) {
+        return findBestLayout(packagingTask, PackingMetrics.DISABLED);
+    }
+
+    //Things fixed by the reduction are not searched, the method is chosen for the rest things
+    PackageLayout findBestLayout(PackagingTask packagingTask, PackingMetrics metrics) {
+        TaskReduction reduction = TaskReduction.of(packagingTask);
+        if (reduction.isComplete()) {
+            metrics.recordSolvingMethod(TaskReduction.SOLVING_METHOD);
+            return reduction.getFixedLayout();
+        }
+        Solver solver = select(reduction.getReducedTask());
+        metrics.recordSolvingMethod(solver.toString());
+        return reduction.expand(solver.findBestLayout(reduction.getReducedTask()));
+    }
+
+    PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+        TaskReduction reduction = TaskReduction.of(packagingTask);
+        if (reduction.isComplete()) {
+            return reduction.getFixedLayout();
+        }
+        return reduction.expand(select(reduction.getReducedTask()).findBestLayout(reduction.getReducedTask(), pool));
+    }
+
+    //Exact methods are used if the cheapest of them fits into the time budget, otherwise the anytime branch and bound
+    //search gives the best layout it finds within the budget. Only the branch and bound counts nodes, so it solves all
+    //tasks of a budget limiting nodes. Other methods could not be stopped, so the budget needs the branch and bound.
+    AnytimeLayout findBestLayout(PackagingTask packagingTask, SolvingBudget budget) {
+        if (!solvers.contains(SolvingMethod.BRANCH_AND_BOUND)) {
+            throw new IllegalArgumentException("Solving within a budget needs the branch and bound, but only "
+                    + solvers + " are allowed");
+        }
+        TaskReduction reduction = TaskReduction.of(packagingTask);
+        if (reduction.isComplete()) {
+            return AnytimeLayout.optimal(reduction.getFixedLayout());
+        }
+        PackagingTask reducedTask = reduction.getReducedTask();
+        Solver solver = select(reducedTask);
+        if (!SolvingMethod.BRANCH_AND_BOUND.equals(solver) && budget.isEnoughFor(solver.estimateCost(reducedTask))) {
+            return AnytimeLayout.optimal(reduction.expand(solver.findBestLayout(reducedTask)));
+        }
+        return BranchAndBoundSolver.findBestLayout(reducedTask, budget).expand(reduction);
+    }
+
+}
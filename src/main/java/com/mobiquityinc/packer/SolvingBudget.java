@@ -0,0 +1,57 @@
+package com.mobiquityinc.packer;
+
+import java.util.concurrent.TimeUnit;
+
+//Limit of solving a single task. The time is counted from the start of solving of each task, the number of nodes is
+//the number of visited nodes of the branch and bound search. A task which could not be solved exactly within the
+//budget gets the best layout found so far.
+public final class SolvingBudget {
+
+    private final long maxTime;
+    private final long maxNodes;
+
+    private SolvingBudget(long maxTime, long maxNodes) {
+        if (maxTime < 0 || maxNodes < 0) {
+            throw new IllegalArgumentException("Budget must be non-negative, but got " + maxTime + " ns and "
+                    + maxNodes + " nodes");
+        }
+        this.maxTime = maxTime;
+        this.maxNodes = maxNodes;
+    }
+
+    public static SolvingBudget ofTime(long time, TimeUnit unit) {
+        return new SolvingBudget(unit.toNanos(time), Long.MAX_VALUE);
+    }
+
+    public static SolvingBudget ofNodes(long maxNodes) {
+        return new SolvingBudget(Long.MAX_VALUE, maxNodes);
+    }
+
+    //Both limits are applied, the search stops at the one reached first
+    public SolvingBudget withNodes(long nodes) {
+        return new SolvingBudget(maxTime, nodes);
+    }
+
+    long getMaxTime() {
+        return maxTime;
+    }
+
+    long getMaxNodes() {
+        return maxNodes;
+    }
+
+    boolean isTimeLimited() {
+        return maxTime != Long.MAX_VALUE;
+    }
+
+    boolean isNodeLimited() {
+        return maxNodes != Long.MAX_VALUE;
+    }
+
+    //Exact methods other than the branch and bound could not be stopped and don't count search nodes, so they are
+    //used only if nodes are not limited and their estimated time fits into the budget
+    boolean isEnoughFor(double estimatedTime) {
+        return !isNodeLimited() && estimatedTime <= maxTime;
+    }
+
+}
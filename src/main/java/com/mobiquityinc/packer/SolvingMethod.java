@@ -0,0 +1,56 @@
+package com.mobiquityinc.packer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+//Built-in methods of solving packaging tasks
+public enum SolvingMethod implements Solver {
+
+    EXHAUSTIVE_SEARCH(ExhaustiveSolver::isApplicable, ExhaustiveSolver::estimateCost
+            , ExhaustiveSolver::findBestLayout, ExhaustiveSolver::findBestLayout),
+    DYNAMIC_PROGRAMMING(DynamicProgrammingSolver::isApplicable, DynamicProgrammingSolver::estimateCost
+            , DynamicProgrammingSolver::findBestLayout, DynamicProgrammingSolver::findBestLayout),
+    MEET_IN_THE_MIDDLE(MeetInTheMiddleSolver::isApplicable, MeetInTheMiddleSolver::estimateCost
+            , MeetInTheMiddleSolver::findBestLayout, MeetInTheMiddleSolver::findBestLayout),
+    //Solves any task
+    BRANCH_AND_BOUND(packagingTask -> true, BranchAndBoundSolver::estimateCost
+            , BranchAndBoundSolver::findBestLayout, BranchAndBoundSolver::findBestLayout);
+
+    private final Predicate<PackagingTask> applicability;
+    private final ToDoubleFunction<PackagingTask> costEstimation;
+    private final Function<PackagingTask, PackageLayout> search;
+    private final BiFunction<PackagingTask, ForkJoinPool, PackageLayout> parallelSearch;
+
+    SolvingMethod(Predicate<PackagingTask> applicability, ToDoubleFunction<PackagingTask> costEstimation
+            , Function<PackagingTask, PackageLayout> search
+            , BiFunction<PackagingTask, ForkJoinPool, PackageLayout> parallelSearch) {
+        this.applicability = applicability;
+        this.costEstimation = costEstimation;
+        this.search = search;
+        this.parallelSearch = parallelSearch;
+    }
+
+    @Override
+    public boolean isApplicable(PackagingTask packagingTask) {
+        return applicability.test(packagingTask);
+    }
+
+    @Override
+    public double estimateCost(PackagingTask packagingTask) {
+        return costEstimation.applyAsDouble(packagingTask);
+    }
+
+    @Override
+    public PackageLayout findBestLayout(PackagingTask packagingTask) {
+        return search.apply(packagingTask);
+    }
+
+    @Override
+    public PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+        return parallelSearch.apply(packagingTask, pool);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+//Converts text task files to the binary format. The packer recognizes binary files by their header and feeds their
+//tasks right to solvers, so repeated runs over the same tasks don't parse text again.
+public final class TaskFileConverter {
+
+    private static final String LINE_PARSING_ERROR_SEPARATOR = System.lineSeparator();
+    private static final String TEMPORARY_FILE_SUFFIX = ".tmp";
+
+    private TaskFileConverter() {
+        //No need to instantiate this class
+    }
+
+    //Tasks are written in the order of lines, so packing of the binary file gives the same results as of the text
+    //one. Lines after the first invalid one are still parsed to report all errors at once. Tasks are written to
+    //a temporary file in the directory of the binary file, which replaces the binary file only if all lines are
+    //valid, so a failed conversion never leaves a truncated file which would be decoded as a valid one.
+    public static void convertToBinary(Path textFile, Path binaryFile) throws APIException {
+        List<String> parsingErrors = new ArrayList<>();
+        Path temporaryFile = null;
+        try {
+            //The text file is mapped into memory, so truncating it by the writer would break the reader
+            if (Files.exists(binaryFile) && Files.isSameFile(textFile, binaryFile)) {
+                throw new APIException("Failed to convert a file '" + textFile + "' to '" + binaryFile
+                        + "': the binary file must differ from the text file");
+            }
+            Path absoluteBinaryFile = binaryFile.toAbsolutePath();
+            temporaryFile = Files.createTempFile(absoluteBinaryFile.getParent()
+                    , absoluteBinaryFile.getFileName().toString(), TEMPORARY_FILE_SUFFIX);
+            try (TaskReader reader = TaskReader.open(textFile);
+                 BinaryTaskWriter writer = new BinaryTaskWriter(temporaryFile)) {
+                convertTasks(reader, writer, parsingErrors);
+            }
+            if (parsingErrors.isEmpty()) {
+                Files.move(temporaryFile, binaryFile, StandardCopyOption.REPLACE_EXISTING
+                        , StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new APIException("Failed to convert a file '" + textFile + "' to '" + binaryFile + "'", e);
+        } finally {
+            deleteIfExists(temporaryFile);
+        }
+        if (!parsingErrors.isEmpty()) {
+            throw new APIException(String.join(LINE_PARSING_ERROR_SEPARATOR, parsingErrors));
+        }
+    }
+
+    //The temporary file is left only if the conversion failed, and a failure to delete it must not hide the cause
+    private static void deleteIfExists(Path temporaryFile) {
+        if (temporaryFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            temporaryFile.toFile().deleteOnExit();
+        }
+    }
+
+    private static void convertTasks(TaskReader reader, BinaryTaskWriter writer, List<String> parsingErrors)
+            throws IOException {
+        int lineNumber = 0;
+        boolean moreTasks = true;
+        while (moreTasks) {
+            //Usually users prefer file lines numbering starting from 1
+            lineNumber++;
+            try {
+                PackagingTask task = reader.readTask();
+                moreTasks = task != null;
+                if (moreTasks && parsingErrors.isEmpty()) {
+                    writer.writeTask(task);
+                }
+            } catch (InvalidTaskStringException e) {
+                parsingErrors.add("Failed to parse line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+    }
+
+}
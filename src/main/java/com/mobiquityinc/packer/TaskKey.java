@@ -0,0 +1,48 @@
+package com.mobiquityinc.packer;
+
+//Compares tasks by their scaled values, so tasks with the same best layout positions are equal, thing's indexes don't
+//matter. Scales are not compared, because the best layout doesn't change when all weights or all costs are
+//multiplied by the same number.
+final class TaskKey {
+
+    private final PackagingTask packagingTask;
+    private final int hash;
+
+    TaskKey(PackagingTask packagingTask) {
+        this.packagingTask = packagingTask;
+        int valuesHash = Long.hashCode(packagingTask.getScaledWeightLimit());
+        for (int position = 0; position < packagingTask.getThingsNumber(); position++) {
+            valuesHash = 31 * valuesHash + Long.hashCode(packagingTask.getScaledWeight(position));
+            valuesHash = 31 * valuesHash + Long.hashCode(packagingTask.getScaledCost(position));
+        }
+        this.hash = valuesHash;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof TaskKey) || hash != ((TaskKey) other).hash) {
+            return false;
+        }
+        PackagingTask otherTask = ((TaskKey) other).packagingTask;
+        if (packagingTask.getScaledWeightLimit() != otherTask.getScaledWeightLimit()
+                || packagingTask.getThingsNumber() != otherTask.getThingsNumber()) {
+            return false;
+        }
+        for (int position = 0; position < packagingTask.getThingsNumber(); position++) {
+            if (packagingTask.getScaledWeight(position) != otherTask.getScaledWeight(position)
+                    || packagingTask.getScaledCost(position) != otherTask.getScaledCost(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+}
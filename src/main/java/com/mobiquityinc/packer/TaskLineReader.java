@@ -0,0 +1,37 @@
+package com.mobiquityinc.packer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+//Source of task lines. Lines are split the same way as BufferedReader.readLine does.
+interface TaskLineReader extends Closeable {
+
+    //Returns the next line or null if there are no more lines. The line could be a view over a reader's buffer,
+    //so it is valid only until the next call.
+    CharSequence readLine() throws IOException;
+
+    //Regular files are memory-mapped, other files (e.g. pipes) are read with a usual buffered reader
+    static TaskLineReader open(Path inputFile) throws IOException {
+        if (Files.isRegularFile(inputFile)) {
+            return new MappedTaskLineReader(inputFile, MappedTaskLineReader.DEFAULT_WINDOW_SIZE);
+        }
+        BufferedReader reader = Files.newBufferedReader(inputFile);
+        return new TaskLineReader() {
+
+            @Override
+            public CharSequence readLine() throws IOException {
+                return reader.readLine();
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.mobiquityinc.packer;
+
+import java.math.BigDecimal;
+
+//Character level operations on a task line. Methods finding the end of a token return NOT_FOUND if there is no such
+//token at the position, and return NOT_FOUND for the NOT_FOUND position as well, so the failure of the first step
+//passes through the whole chain of steps.
+final class TaskLineScanner {
+
+    static final int NOT_FOUND = -1;
+    //Returned instead of a number value, if the number doesn't fit into long
+    static final long TOO_BIG = -1L;
+
+    private static final char DECIMAL_POINT = '.';
+    private static final char THING_VALUES_SEPARATOR = ',';
+    private static final char CLOSING_BRACE = ')';
+    private static final int MAX_INDEX_DIGITS = 9;
+    private static final char MONGOLIAN_VOWEL_SEPARATOR = (char) 0x180E;
+
+    private final CharSequence taskLine;
+
+    TaskLineScanner(CharSequence taskLine) {
+        this.taskLine = taskLine;
+    }
+
+    int length() {
+        return taskLine.length();
+    }
+
+    char charAt(int position) {
+        return taskLine.charAt(position);
+    }
+
+    String substring(int from, int to) {
+        return taskLine.subSequence(from, to).toString();
+    }
+
+    //Returns the position of the character or the end position if the character is not found
+    int indexOf(char character, int from, int to) {
+        for (int position = from; position < to; position++) {
+            if (taskLine.charAt(position) == character) {
+                return position;
+            }
+        }
+        return to;
+    }
+
+    boolean containsOnly(char character, int from, int to) {
+        for (int position = from; position < to; position++) {
+            if (taskLine.charAt(position) != character) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int skipHorizontalWhitespaces(int from, int to) {
+        if (from == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int position = from;
+        while (position < to && isHorizontalWhitespace(taskLine.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    //Thing's index is \d{1,9} followed by anything but a digit
+    int findIndexEnd(int from, int to) {
+        int position = skipDigits(from, to);
+        return position == from || position - from > MAX_INDEX_DIGITS ? NOT_FOUND : position;
+    }
+
+    //Skips the separator of thing's values surrounded by optional whitespaces
+    int skipValuesSeparator(int from, int to) {
+        int separatorPosition = skipHorizontalWhitespaces(from, to);
+        if (separatorPosition == NOT_FOUND || separatorPosition == to
+                || taskLine.charAt(separatorPosition) != THING_VALUES_SEPARATOR) {
+            return NOT_FOUND;
+        }
+        return skipHorizontalWhitespaces(separatorPosition + 1, to);
+    }
+
+    //Anything but digits could precede the cost, e.g. the currency symbol, so the cost starts with the first digit
+    int findCostStart(int from, int to) {
+        if (from == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int position = from;
+        while (position < to && !isDigit(taskLine.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    //Skips the closing brace after optional whitespaces
+    int skipClosingBrace(int from, int to) {
+        int bracePosition = skipHorizontalWhitespaces(from, to);
+        if (bracePosition == NOT_FOUND || bracePosition == to || taskLine.charAt(bracePosition) != CLOSING_BRACE) {
+            return NOT_FOUND;
+        }
+        return bracePosition + 1;
+    }
+
+    //Returns the end of the number (\d*\.)?\d+ starting at the position. The number is taken with all digits
+    //and points following it, because in valid lines it is always followed by some other character.
+    int findNumberEnd(int from, int to) {
+        if (from == NOT_FOUND) {
+            return NOT_FOUND;
+        }
+        int integerPartEnd = skipDigits(from, to);
+        int numberEnd = integerPartEnd;
+        if (integerPartEnd < to && taskLine.charAt(integerPartEnd) == DECIMAL_POINT) {
+            numberEnd = skipDigits(integerPartEnd + 1, to);
+            if (numberEnd == integerPartEnd + 1) {
+                return NOT_FOUND;
+            }
+        }
+        boolean followedByPoint = numberEnd < to && taskLine.charAt(numberEnd) == DECIMAL_POINT;
+        return numberEnd == from || followedByPoint ? NOT_FOUND : numberEnd;
+    }
+
+    //Value of the number without the decimal point, or TOO_BIG
+    long parseUnscaledValue(int from, int to) {
+        long value = 0L;
+        for (int position = from; position < to; position++) {
+            char character = taskLine.charAt(position);
+            if (character != DECIMAL_POINT) {
+                if (value > (Long.MAX_VALUE - 9L) / 10L) {
+                    return TOO_BIG;
+                }
+                value = value * 10L + character - '0';
+            }
+        }
+        return value;
+    }
+
+    //Number of digits after the decimal point, the same as BigDecimal's scale of the number
+    int getScale(int from, int to) {
+        int decimalPointPosition = indexOf(DECIMAL_POINT, from, to);
+        return decimalPointPosition == to ? 0 : to - decimalPointPosition - 1;
+    }
+
+    //Returns the end of the number without trailing zeros of its fraction which are beyond the scale given, so
+    //"1.50000000000" is taken as "1.500000000" if the scale is 9. Other numbers are returned as they are.
+    int trimTrailingZeros(int from, int to, int maxScale) {
+        int numberEnd = to;
+        int scale = getScale(from, to);
+        while (scale > maxScale && taskLine.charAt(numberEnd - 1) == '0') {
+            numberEnd--;
+            scale--;
+        }
+        return numberEnd;
+    }
+
+    BigDecimal toBigDecimal(int from, int to) {
+        return new BigDecimal(substring(from, to));
+    }
+
+    private int skipDigits(int from, int to) {
+        int position = from;
+        while (position < to && isDigit(taskLine.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    //The same as \d of regular expressions: only ASCII digits
+    private static boolean isDigit(char character) {
+        return character >= '0' && character <= '9';
+    }
+
+    //The same set of characters as \h of regular expressions: tabulation and space separators. The Mongolian vowel
+    //separator is not a space separator since Unicode 6.3, but still is a part of the set.
+    private static boolean isHorizontalWhitespace(char character) {
+        return character == '\t' || character == MONGOLIAN_VOWEL_SEPARATOR
+                || Character.getType(character) == Character.SPACE_SEPARATOR;
+    }
+
+}
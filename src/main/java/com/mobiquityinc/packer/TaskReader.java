@@ -0,0 +1,23 @@
+package com.mobiquityinc.packer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+//Source of packaging tasks of a file. Lines of a text file are parsed one by one, records of a binary file are
+//decoded right to tasks without any string handling.
+interface TaskReader extends Closeable {
+
+    //Returns the next task or null if there are no more tasks. An invalid task line is reported by the exception,
+    //and the next call returns the task after it.
+    PackagingTask readTask() throws IOException, InvalidTaskStringException;
+
+    //Binary files are recognized by the magic bytes at the start
+    static TaskReader open(Path inputFile) throws IOException {
+        if (BinaryTaskFormat.isBinary(inputFile)) {
+            return new BinaryTaskReader(inputFile);
+        }
+        return new TextTaskReader(TaskLineReader.open(inputFile), TextTaskReader.DEFAULT_DISTINCT_LINES);
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.mobiquityinc.packer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+//Fixes things which have the same choice in all layouts as good as the best one by cost and weight, so solvers search
+//only the rest things. Fixed things don't change the order of layouts of the rest things (their costs and weights are
+//the same in all compared layouts, and layout numbers keep the order when bits of fixed things are removed), so the
+//reduced layout expanded with fixed things is the same layout as the brute force gives for the whole task.
+//Things are fixed by the following rules:
+//* things heavier than the weight limit and things without cost are never taken, things without weight but with
+//  a cost are always taken;
+//* a thing is taken only together with all things dominating it (not heavier, not cheaper and better by weight, cost
+//  or position), because otherwise swapping would give a better layout, so it is left out if they don't fit together;
+//* if all things fit together, all of them are taken;
+//* a thing is fixed if the cost upper bound of layouts with the opposite choice is lower than the cost of the greedy
+//  layout, the same reduction the branch and bound uses to find the core of things worth searching.
+final class TaskReduction {
+
+    static final String SOLVING_METHOD = "REDUCTION";
+
+    private final PackagingTask packagingTask;
+    //Things with known choice, taken ones are also set in the taken positions
+    private final BitSet fixedPositions;
+    private final BitSet takenPositions;
+    //Scratch array of positions of things with unknown choice, refreshed by each rule
+    private final int[] freePositions;
+    private final PackagingTask reducedTask;
+    //Positions in the original task of things of the reduced task
+    private final int[] originalPositions;
+
+    private TaskReduction(PackagingTask packagingTask) {
+        this.packagingTask = packagingTask;
+        this.fixedPositions = new BitSet(packagingTask.getThingsNumber());
+        this.takenPositions = new BitSet(packagingTask.getThingsNumber());
+        this.freePositions = new int[packagingTask.getThingsNumber()];
+        fixByWeightAndCost();
+        fixDominated();
+        fixAllFitting();
+        fixByBounds();
+        fixAllFitting();
+        this.originalPositions = Arrays.copyOf(freePositions, collectFreePositions());
+        this.reducedTask = fixedPositions.isEmpty() ? packagingTask : createReducedTask();
+    }
+
+    static TaskReduction of(PackagingTask packagingTask) {
+        return new TaskReduction(packagingTask);
+    }
+
+    //All things are fixed, so there is nothing to search
+    boolean isComplete() {
+        return reducedTask.getThingsNumber() == 0;
+    }
+
+    PackagingTask getReducedTask() {
+        return reducedTask;
+    }
+
+    PackageLayout getFixedLayout() {
+        return PackageLayout.of(packagingTask, takenPositions);
+    }
+
+    //Applies the best layout of the reduced task to the original task
+    PackageLayout expand(PackageLayout reducedLayout) {
+        if (fixedPositions.isEmpty()) {
+            return reducedLayout;
+        }
+        BitSet positions = (BitSet) takenPositions.clone();
+        BitSet reducedPositions = reducedLayout.getTakenPositions();
+        for (int position = reducedPositions.nextSetBit(0); position >= 0;
+             position = reducedPositions.nextSetBit(position + 1)) {
+            positions.set(originalPositions[position]);
+        }
+        return PackageLayout.of(packagingTask, positions, reducedLayout.getExploredStates());
+    }
+
+    private void fix(int position, boolean taken) {
+        fixedPositions.set(position);
+        takenPositions.set(position, taken);
+    }
+
+    private long getRemainingCapacity() {
+        long capacity = packagingTask.getScaledWeightLimit();
+        for (int position = takenPositions.nextSetBit(0); position >= 0;
+             position = takenPositions.nextSetBit(position + 1)) {
+            capacity -= packagingTask.getScaledWeight(position);
+        }
+        return capacity;
+    }
+
+    //Fills the scratch array with free positions in ascending order and returns their number
+    private int collectFreePositions() {
+        int thingsNumber = packagingTask.getThingsNumber();
+        int freeNumber = 0;
+        for (int position = fixedPositions.nextClearBit(0); position < thingsNumber;
+             position = fixedPositions.nextClearBit(position + 1)) {
+            freePositions[freeNumber++] = position;
+        }
+        return freeNumber;
+    }
+
+    private PackagingTask createReducedTask() {
+        int[] indexes = new int[originalPositions.length];
+        long[] scaledWeights = new long[originalPositions.length];
+        long[] scaledCosts = new long[originalPositions.length];
+        for (int i = 0; i < originalPositions.length; i++) {
+            indexes[i] = packagingTask.getIndex(originalPositions[i]);
+            scaledWeights[i] = packagingTask.getScaledWeight(originalPositions[i]);
+            scaledCosts[i] = packagingTask.getScaledCost(originalPositions[i]);
+        }
+        return new PackagingTask(getRemainingCapacity(), packagingTask.getWeightScale()
+                , packagingTask.getCostScale(), indexes, scaledWeights, scaledCosts);
+    }
+
+    //A thing without cost only makes a layout heavier or gives it a higher layout number
+    private void fixByWeightAndCost() {
+        for (int position = 0; position < packagingTask.getThingsNumber(); position++) {
+            long weight = packagingTask.getScaledWeight(position);
+            long cost = packagingTask.getScaledCost(position);
+            if (weight > packagingTask.getScaledWeightLimit() || cost == 0) {
+                fix(position, false);
+            } else if (weight == 0) {
+                fix(position, true);
+            }
+        }
+    }
+
+    private void fixDominated() {
+        long capacity = getRemainingCapacity();
+        int freeNumber = collectFreePositions();
+        for (int i = 0; i < freeNumber; i++) {
+            int dominated = freePositions[i];
+            long weightWithDominating = packagingTask.getScaledWeight(dominated);
+            for (int j = 0; j < freeNumber; j++) {
+                int dominating = freePositions[j];
+                if (dominating != dominated && isDominating(dominating, dominated)) {
+                    weightWithDominating += packagingTask.getScaledWeight(dominating);
+                }
+            }
+            if (weightWithDominating > capacity) {
+                fix(dominated, false);
+            }
+        }
+    }
+
+    //Of two identical things the brute force takes the one with lower position
+    private boolean isDominating(int position, int otherPosition) {
+        long weight = packagingTask.getScaledWeight(position);
+        long otherWeight = packagingTask.getScaledWeight(otherPosition);
+        long cost = packagingTask.getScaledCost(position);
+        long otherCost = packagingTask.getScaledCost(otherPosition);
+        return weight <= otherWeight && cost >= otherCost
+                && (weight < otherWeight || cost > otherCost || position < otherPosition);
+    }
+
+    //Things too heavy for the capacity left by taken things are left out, and if the rest fit together, they are
+    //all taken, because each of them has a cost
+    private void fixAllFitting() {
+        long capacity = getRemainingCapacity();
+        long totalWeight = 0L;
+        int freeNumber = collectFreePositions();
+        for (int i = 0; i < freeNumber; i++) {
+            int position = freePositions[i];
+            long weight = packagingTask.getScaledWeight(position);
+            if (weight > capacity) {
+                fix(position, false);
+            } else {
+                totalWeight += weight;
+            }
+        }
+        if (totalWeight <= capacity) {
+            for (int i = 0; i < freeNumber; i++) {
+                if (!fixedPositions.get(freePositions[i])) {
+                    fix(freePositions[i], true);
+                }
+            }
+        }
+    }
+
+    //Any best layout is at least as expensive as the greedy one, so if all layouts with some choice of a thing are
+    //cheaper for sure, the thing has the opposite choice. The comparison is strict to keep equally expensive layouts
+    //for the tie-breaking by weight and layout number.
+    private void fixByBounds() {
+        long capacity = getRemainingCapacity();
+        int[] order = sortByCostToWeightRatio(collectFreePositions());
+        long greedyCost = 0L;
+        long greedyCapacity = capacity;
+        for (int position : order) {
+            if (packagingTask.getScaledWeight(position) <= greedyCapacity) {
+                greedyCost += packagingTask.getScaledCost(position);
+                greedyCapacity -= packagingTask.getScaledWeight(position);
+            }
+        }
+        for (int position : order) {
+            long weight = packagingTask.getScaledWeight(position);
+            long cost = packagingTask.getScaledCost(position);
+            if (cost + calculateUpperBound(order, position, capacity - weight) < greedyCost) {
+                fix(position, false);
+            } else if (calculateUpperBound(order, position, capacity) < greedyCost) {
+                fix(position, true);
+            }
+        }
+    }
+
+    //Free things have positive weights and fit into the capacity after previous rules. Things of equal ratios keep
+    //the order of positions. There are at most 200 things, so the insertion sort of primitive arrays is cheaper than
+    //boxing positions for a library sort.
+    private int[] sortByCostToWeightRatio(int freeNumber) {
+        int[] order = Arrays.copyOf(freePositions, freeNumber);
+        double[] ratios = new double[freeNumber];
+        for (int i = 0; i < freeNumber; i++) {
+            int position = order[i];
+            double ratio = (double) packagingTask.getScaledCost(position) / packagingTask.getScaledWeight(position);
+            int j = i;
+            while (j > 0 && ratios[j - 1] < ratio) {
+                order[j] = order[j - 1];
+                ratios[j] = ratios[j - 1];
+                j--;
+            }
+            order[j] = position;
+            ratios[j] = ratio;
+        }
+        return order;
+    }
+
+    //The fractional knapsack cost of things in the order except the one excluded
+    private long calculateUpperBound(int[] order, int excludedPosition, long capacity) {
+        long bound = 0L;
+        long remainingCapacity = capacity;
+        for (int position : order) {
+            long thingWeight = packagingTask.getScaledWeight(position);
+            long thingCost = packagingTask.getScaledCost(position);
+            if (position != excludedPosition && thingWeight > remainingCapacity) {
+                //Costs are integers, so the rounding up keeps the bound valid despite of double inaccuracy
+                return bound + (long) Math.ceil((double) thingCost * remainingCapacity / thingWeight);
+            }
+            if (position != excludedPosition) {
+                bound += thingCost;
+                remainingCapacity -= thingWeight;
+            }
+        }
+        return bound;
+    }
+
+}
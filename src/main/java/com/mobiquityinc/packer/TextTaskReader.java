@@ -0,0 +1,138 @@
+package com.mobiquityinc.packer;
+
+import java.io.IOException;
+import java.util.Map;
+
+//Parses task lines of a text file. Generated files often repeat the same line many times, so tasks of recently seen
+//lines are kept and a repeated line is not parsed again. Tasks are immutable, so the same task object is returned
+//for all copies of the line. Invalid lines are not kept, they are parsed again to report the error.
+final class TextTaskReader implements TaskReader {
+
+    static final int DEFAULT_DISTINCT_LINES = 1024;
+
+    private final TaskLineReader lineReader;
+    private final Map<LineKey, PackagingTask> parsedLines;
+    //Lines are looked up by the view over the reader's buffer, only a new line is copied to be kept
+    private final LineKey lookupKey = new LineKey();
+
+    TextTaskReader(TaskLineReader lineReader, int maxDistinctLines) {
+        this.lineReader = lineReader;
+        this.parsedLines = new LruMap<>(maxDistinctLines);
+    }
+
+    @Override
+    public PackagingTask readTask() throws IOException, InvalidTaskStringException {
+        CharSequence taskLine = lineReader.readLine();
+        if (taskLine == null) {
+            return null;
+        }
+        PackagingTask task = parsedLines.get(lookupKey.set(taskLine));
+        if (task == null) {
+            task = PackagingTaskParser.parse(taskLine);
+            if (LineKey.isCodable(taskLine)) {
+                parsedLines.put(LineKey.copyOf(taskLine, lookupKey.hash), task);
+            }
+        }
+        return task;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lineReader.close();
+    }
+
+    //Compares lines by characters, so a view and a kept copy of the same line are equal. Copies take one byte per
+    //character, the same as lines take in the file: ASCII characters are kept as they are and the euro sign as a byte
+    //which no ASCII character has, so no string is created for a line. Lines with other characters are rare in task
+    //files, so they are not kept.
+    private static final class LineKey {
+
+        private static final int MAX_ASCII_CHAR = 0x7F;
+        private static final char EURO_SIGN = (char) 0x20AC;
+        private static final int EURO_SIGN_CODE = 0x80;
+        private static final int NOT_CODABLE = -1;
+        private static final int BYTE_MASK = 0xFF;
+        private static final byte[] NO_CODES = new byte[0];
+
+        //The view of a lookup key, or the empty line for a kept copy
+        private CharSequence line = "";
+        private byte[] codes = NO_CODES;
+        private boolean copy;
+        private int hash;
+
+        private LineKey set(CharSequence line) {
+            this.line = line;
+            int lineHash = 0;
+            for (int i = 0; i < line.length(); i++) {
+                lineHash = 31 * lineHash + line.charAt(i);
+            }
+            this.hash = lineHash;
+            return this;
+        }
+
+        private static boolean isCodable(CharSequence line) {
+            for (int i = 0; i < line.length(); i++) {
+                if (encode(line.charAt(i)) == NOT_CODABLE) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        //The line must be codable, its hash is already known from the lookup
+        private static LineKey copyOf(CharSequence line, int hash) {
+            LineKey key = new LineKey();
+            key.codes = new byte[line.length()];
+            for (int i = 0; i < key.codes.length; i++) {
+                key.codes[i] = (byte) encode(line.charAt(i));
+            }
+            key.copy = true;
+            key.hash = hash;
+            return key;
+        }
+
+        private static int encode(char character) {
+            if (character <= MAX_ASCII_CHAR) {
+                return character;
+            }
+            return character == EURO_SIGN ? EURO_SIGN_CODE : NOT_CODABLE;
+        }
+
+        private int length() {
+            return copy ? codes.length : line.length();
+        }
+
+        private int codeAt(int index) {
+            return copy ? codes[index] & BYTE_MASK : encode(line.charAt(index));
+        }
+
+        //Lines with characters which could not be coded are never kept, so they are never equal to kept ones
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof LineKey) || hash != ((LineKey) other).hash) {
+                return false;
+            }
+            LineKey otherKey = (LineKey) other;
+            if (length() != otherKey.length()) {
+                return false;
+            }
+            for (int i = 0; i < length(); i++) {
+                int code = codeAt(i);
+                if (code == NOT_CODABLE || code != otherKey.codeAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+}
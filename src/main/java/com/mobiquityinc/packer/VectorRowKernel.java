@@ -0,0 +1,91 @@
+package com.mobiquityinc.packer;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+//Updates as many cells at once as the widest vector of longs the CPU has: 4 with AVX2, 8 with AVX-512. Cells of a
+//block are updated together from rest capacities which are loaded before the block is stored, so the block still
+//reads layouts without the thing, even if the thing is lighter than the block. Blocks start at multiples of the
+//vector length, so a block never crosses a word of choices and its mask is shifted right into the word. Cells above
+//the first block and below the last one are updated one by one.
+final class VectorRowKernel implements RowKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+    private static final int LOG_BITS_PER_WORD = 6;
+    private static final int WORD_MASK = (1 << LOG_BITS_PER_WORD) - 1;
+
+    VectorRowKernel() {
+        //Without SIMD registers for longs the scalar kernel is faster
+        if (SPECIES.length() < 2) {
+            throw new IllegalStateException("Vectors of longs are not supported by the CPU");
+        }
+    }
+
+    @Override
+    public void addThing(ByteBuffer costs, ByteBuffer weights, int cellsInRow, long thingWeight, long thingCost
+            , LongBuffer choices, int choicesOffset) {
+        int lanes = SPECIES.length();
+        long choicesWord = 0;
+        int c = cellsInRow - 1;
+        for (; c >= thingWeight && (c + 1) % lanes != 0; c--) {
+            choicesWord = addThing(costs, weights, c, thingWeight, thingCost, choicesWord);
+            choicesWord = storeChoices(choices, choicesOffset, c, thingWeight, choicesWord);
+        }
+        LongVector thingCosts = LongVector.broadcast(SPECIES, thingCost);
+        LongVector thingWeights = LongVector.broadcast(SPECIES, thingWeight);
+        for (; c - lanes + 1 >= thingWeight; c -= lanes) {
+            int blockFrom = c - lanes + 1;
+            int restFrom = (int) (blockFrom - thingWeight);
+            LongVector blockCosts = LongVector.fromByteBuffer(SPECIES, costs, blockFrom * Long.BYTES, ORDER);
+            LongVector blockWeights = LongVector.fromByteBuffer(SPECIES, weights, blockFrom * Long.BYTES, ORDER);
+            LongVector candidateCosts = LongVector.fromByteBuffer(SPECIES, costs, restFrom * Long.BYTES, ORDER)
+                    .add(thingCosts);
+            LongVector candidateWeights = LongVector.fromByteBuffer(SPECIES, weights, restFrom * Long.BYTES, ORDER)
+                    .add(thingWeights);
+            //The same criteria as DynamicProgrammingSolver.isBetter: higher cost first, then lower weight
+            VectorMask<Long> better = candidateCosts.compare(VectorOperators.GT, blockCosts)
+                    .or(candidateCosts.compare(VectorOperators.EQ, blockCosts)
+                            .and(candidateWeights.compare(VectorOperators.LT, blockWeights)));
+            blockCosts.blend(candidateCosts, better).intoByteBuffer(costs, blockFrom * Long.BYTES, ORDER);
+            blockWeights.blend(candidateWeights, better).intoByteBuffer(weights, blockFrom * Long.BYTES, ORDER);
+            choicesWord |= better.toLong() << (blockFrom & WORD_MASK);
+            choicesWord = storeChoices(choices, choicesOffset, blockFrom, thingWeight, choicesWord);
+        }
+        for (; c >= thingWeight; c--) {
+            choicesWord = addThing(costs, weights, c, thingWeight, thingCost, choicesWord);
+            choicesWord = storeChoices(choices, choicesOffset, c, thingWeight, choicesWord);
+        }
+    }
+
+    private static long addThing(ByteBuffer costs, ByteBuffer weights, int c, long thingWeight, long thingCost
+            , long choicesWord) {
+        int restCapacity = (int) (c - thingWeight);
+        long candidateCost = costs.getLong(restCapacity * Long.BYTES) + thingCost;
+        long candidateWeight = weights.getLong(restCapacity * Long.BYTES) + thingWeight;
+        if (DynamicProgrammingSolver.isBetter(candidateCost, candidateWeight, costs.getLong(c * Long.BYTES)
+                , weights.getLong(c * Long.BYTES))) {
+            costs.putLong(c * Long.BYTES, candidateCost);
+            weights.putLong(c * Long.BYTES, candidateWeight);
+            return choicesWord | 1L << c;
+        }
+        return choicesWord;
+    }
+
+    //The word is stored when its lowest capacity or the thing weight is passed
+    private static long storeChoices(LongBuffer choices, int choicesOffset, int c, long thingWeight
+            , long choicesWord) {
+        if ((c & WORD_MASK) == 0 || c == thingWeight) {
+            choices.put(choicesOffset + (c >>> LOG_BITS_PER_WORD), choicesWord);
+            return 0;
+        }
+        return choicesWord;
+    }
+
+}
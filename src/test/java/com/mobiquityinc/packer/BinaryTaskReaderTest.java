@@ -0,0 +1,109 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+
+@Test(groups = "integration")
+public class BinaryTaskReaderTest {
+
+    private static List<PackagingTask> readTasks(Path file) throws IOException {
+        List<PackagingTask> tasks = new ArrayList<>();
+        try (BinaryTaskReader reader = new BinaryTaskReader(file)) {
+            for (PackagingTask task = reader.readTask(); task != null; task = reader.readTask()) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    private static Path writeTasks(List<PackagingTask> tasks) throws IOException {
+        Path file = Files.createTempFile("tasks", ".bin");
+        try (BinaryTaskWriter writer = new BinaryTaskWriter(file)) {
+            for (PackagingTask task : tasks) {
+                writer.writeTask(task);
+            }
+        }
+        return file;
+    }
+
+    public void readsTasksWritten() throws IOException {
+        Random random = new Random(3L);
+        List<PackagingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(RandomTasks.generateAnyTask(random));
+        }
+        Path file = writeTasks(tasks);
+        try {
+            assertEquals(readTasks(file).toString(), tasks.toString());
+            assertEquals(BinaryTaskFormat.isBinary(file), true);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void readsNothingAfterHeader() throws IOException {
+        Path file = writeTasks(new ArrayList<>());
+        try (BinaryTaskReader reader = new BinaryTaskReader(file)) {
+            assertNull(reader.readTask());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void doesNotTakeTextFileForBinary() throws IOException {
+        Path file = Files.createTempFile("tasks", ".txt");
+        try {
+            Files.write(file, Arrays.asList("8 : (1,15.3,€34)"));
+            assertFalse(BinaryTaskFormat.isBinary(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = ".*Malformed record 1.*")
+    public void rejectsTruncatedRecord() throws IOException {
+        Path file = writeTasks(Arrays.asList(RandomTasks.generateAnyTask(new Random(4L))));
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            readTasks(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = ".*weight limit 101.*")
+    public void rejectsValueOutOfRange() throws IOException {
+        Path file = Files.createTempFile("tasks", ".bin");
+        try {
+            //Header, then the record of 6 bytes: scales 0 and 0, limit 101, one thing (1, 1, 1)
+            Files.write(file, new byte[]{(byte) 0x89, 'P', 'K', 'T', 1, 7, 0, 0, 101, 1, 1, 1, 1});
+            readTasks(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = "Version 2 .*")
+    public void rejectsUnknownVersion() throws IOException {
+        Path file = Files.createTempFile("tasks", ".bin");
+        try {
+            Files.write(file, new byte[]{(byte) 0x89, 'P', 'K', 'T', 2});
+            readTasks(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
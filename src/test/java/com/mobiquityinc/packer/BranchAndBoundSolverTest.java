@@ -0,0 +1,131 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "integration")
+public class BranchAndBoundSolverTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static String solve(PackagingTask task) {
+        return BranchAndBoundSolver.findBestLayout(task).getIndexesString();
+    }
+
+    private static String solveExhaustively(PackagingTask task) {
+        return ExhaustiveSolver.findBestLayout(task).getIndexesString();
+    }
+
+    public void findsEmptyPackagingBetterThanOverweight() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(42, BigDecimal.valueOf(55L), new BigDecimal("99.99"))
+                , new Thing(15, BigDecimal.valueOf(11L), new BigDecimal("0.99"))
+        ));
+        assertEquals(solve(task), "-");
+    }
+
+    public void prefersLighterLayoutForEqualCost() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(1, new BigDecimal("5.01"), BigDecimal.TEN)
+                , new Thing(2, new BigDecimal("5"), BigDecimal.TEN)
+        ));
+        assertEquals(solve(task), "2");
+    }
+
+    @Test(timeOut = 5000L)
+    public void takesFirstOfIdenticalThings() {
+        List<Thing> things = IntStream.rangeClosed(1, 200)
+                .mapToObj(index -> new Thing(index, new BigDecimal("2.5"), BigDecimal.ONE))
+                .collect(Collectors.toList());
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, things);
+        assertEquals(solve(task), "1,2,3,4");
+    }
+
+    @DataProvider(name = "small-random-tasks")
+    public Object[][] getSmallRandomTasks() {
+        Random random = new Random(42L);
+        return IntStream.range(0, 50)
+                .mapToObj(i -> new Object[]{RandomTasks.generateTieProneTask(random, 1 + random.nextInt(12)
+                        , random.nextInt(3), 60)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "small-random-tasks")
+    public void findsTheSameLayoutAsBruteForce(PackagingTask task) {
+        assertEquals(solve(task), solveExhaustively(task));
+    }
+
+    @DataProvider(name = "large-random-tasks")
+    public Object[][] getLargeRandomTasks() {
+        Random random = new Random(42L);
+        return IntStream.range(0, 10)
+                .mapToObj(i -> new Object[]{RandomTasks.generateTieProneTask(random, 50 + random.nextInt(150), 0, 100)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "large-random-tasks", timeOut = 5000L)
+    public void findsTheSameLayoutAsDynamicProgramming(PackagingTask task) {
+        assertEquals(solve(task), DynamicProgrammingSolver.findBestLayout(task).getIndexesString());
+    }
+
+    @Test(timeOut = 5000L)
+    public void takesFirstOfIdenticalThingsInParallel() {
+        List<Thing> things = IntStream.rangeClosed(1, 200)
+                .mapToObj(index -> new Thing(index, new BigDecimal("2.5"), BigDecimal.ONE))
+                .collect(Collectors.toList());
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, things);
+        assertEquals(BranchAndBoundSolver.findBestLayout(task, POOL).getIndexesString(), "1,2,3,4");
+    }
+
+    @Test(dataProvider = "large-random-tasks", timeOut = 5000L)
+    public void findsTheSameLayoutInParallel(PackagingTask task) {
+        assertEquals(BranchAndBoundSolver.findBestLayout(task, POOL).getIndexesString(), solve(task));
+    }
+
+    @Test(timeOut = 5000L)
+    public void solvesLargePreciseTask() {
+        PackagingTask task = RandomTasks.generateTieProneTask(new Random(7L), 200, 2, 100);
+        assertEquals(PackagingTaskSolver.findBestLayout(task).getIndexesString(), solve(task));
+    }
+
+    @Test(dataProvider = "small-random-tasks")
+    public void findsTheSameLayoutWithinEnoughBudget(PackagingTask task) {
+        AnytimeLayout layout = BranchAndBoundSolver.findBestLayout(task, SolvingBudget.ofNodes(1L << 20));
+        assertTrue(layout.isOptimal());
+        assertEquals(layout.getLayout().getIndexesString(), solveExhaustively(task));
+        assertEquals(layout.getGap().signum(), 0);
+    }
+
+    @Test(dataProvider = "small-random-tasks")
+    public void boundsCostOfBestLayoutWhenBudgetIsExhausted(PackagingTask task) {
+        AnytimeLayout layout = BranchAndBoundSolver.findBestLayout(task, SolvingBudget.ofNodes(3L));
+        BigDecimal bestCost = ExhaustiveSolver.findBestLayout(task).getCost();
+        assertTrue(layout.getLayout().getCost().compareTo(bestCost) <= 0
+                && bestCost.compareTo(layout.getCostUpperBound()) <= 0, layout.toString());
+        assertFalse(layout.getLayout().isOverWeighted(task.getWeightLimit()));
+        assertTrue(!layout.isOptimal() || layout.getLayout().getIndexesString().equals(solveExhaustively(task)));
+    }
+
+    public void takesGreedyLayoutWithoutTime() {
+        PackagingTask task = RandomTasks.generateTieProneTask(new Random(8L), 200, 6, 100);
+        AnytimeLayout layout = BranchAndBoundSolver.findBestLayout(task, SolvingBudget.ofTime(0L
+                , TimeUnit.NANOSECONDS));
+        assertFalse(layout.isOptimal());
+        assertFalse(layout.getLayout().isOverWeighted(task.getWeightLimit()));
+        assertTrue(layout.getRelativeGap() >= 0.0 && layout.getRelativeGap() < 1.0, layout.toString());
+    }
+
+}
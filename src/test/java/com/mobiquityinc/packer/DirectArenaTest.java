@@ -0,0 +1,56 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.nio.LongBuffer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "unit")
+public class DirectArenaTest {
+
+    public void clearsReusedMemory() {
+        try (DirectArena arena = DirectArena.acquire(8)) {
+            LongBuffer array = arena.allocate(8).asLongBuffer();
+            for (int i = 0; i < 8; i++) {
+                array.put(i, -1L);
+            }
+        }
+        try (DirectArena arena = DirectArena.acquire(8)) {
+            arena.allocate(4);
+            LongBuffer array = arena.allocate(4).asLongBuffer();
+            assertEquals(array.get(0) | array.get(1) | array.get(2) | array.get(3), 0L);
+        }
+    }
+
+    public void givesTemporaryArenaIfThreadArenaIsInUse() {
+        try (DirectArena arena = DirectArena.acquire(1)) {
+            LongBuffer array = arena.allocate(1).asLongBuffer();
+            array.put(0, 7L);
+            try (DirectArena nestedArena = DirectArena.acquire(1)) {
+                nestedArena.allocate(1).putLong(0, 9L);
+            }
+            assertEquals(array.get(0), 7L);
+        }
+    }
+
+    //Memory of big tasks was released after each of them, so each big task allocated it again
+    public void keepsMemoryOfBigTask() {
+        int longs = 80 << 17;
+        try (DirectArena arena = DirectArena.acquire(longs)) {
+            arena.allocate(longs);
+        }
+        assertTrue(DirectArena.getThreadArenaBytes() >= longs * Long.BYTES);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void bansAllocationsOverRequestedSize() {
+        try (DirectArena arena = DirectArena.acquire(1000)) {
+            arena.allocate(1000);
+            //The memory could be bigger than requested, but it is not available anyway
+            arena.allocate(10000);
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "integration")
+public class DynamicProgrammingSolverTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static String solve(PackagingTask task) {
+        return DynamicProgrammingSolver.findBestLayout(task).getIndexesString();
+    }
+
+    private static String solveExhaustively(PackagingTask task) {
+        return ExhaustiveSolver.findBestLayout(task).getIndexesString();
+    }
+
+    public void findsEmptyPackagingBetterThanOverweight() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(42, BigDecimal.valueOf(55L), new BigDecimal("99.99"))
+                , new Thing(15, BigDecimal.valueOf(11L), new BigDecimal("0.99"))
+        ));
+        assertEquals(solve(task), "-");
+    }
+
+    public void picksTwoThingsFromThreeWithFractionalWeights() {
+        PackagingTask task = new PackagingTask(new BigDecimal("12.1"), Arrays.asList(
+                new Thing(1, new BigDecimal("6.6"), new BigDecimal("0.333"))
+                , new Thing(2, new BigDecimal("1.5"), new BigDecimal("0.111"))
+                , new Thing(3, new BigDecimal("5.6"), new BigDecimal("0.222"))
+                , new Thing(4, new BigDecimal("3.6"), new BigDecimal("0.444"))
+        ));
+        assertEquals(solve(task), "1,2,4");
+    }
+
+    public void prefersLighterLayoutForEqualCost() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(1, new BigDecimal("5.01"), BigDecimal.TEN)
+                , new Thing(2, new BigDecimal("5"), BigDecimal.TEN)
+        ));
+        assertEquals(solve(task), "2");
+    }
+
+    public void breaksFullTieTheSameWayAsBruteForce() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(1, new BigDecimal("2"), new BigDecimal("3"))
+                , new Thing(2, new BigDecimal("3"), new BigDecimal("4"))
+                , new Thing(3, new BigDecimal("5"), new BigDecimal("7"))
+                , new Thing(4, new BigDecimal("5"), new BigDecimal("7"))
+        ));
+        assertEquals(solve(task), solveExhaustively(task));
+    }
+
+    @DataProvider(name = "random-tasks")
+    public Object[][] getRandomTasks() {
+        Random random = new Random(42L);
+        Object[][] tasks = new Object[50][];
+        for (int i = 0; i < tasks.length; i++) {
+            List<Thing> things = new ArrayList<>();
+            int thingsNumber = 1 + random.nextInt(12);
+            for (int index = 1; index <= thingsNumber; index++) {
+                //Small set of values makes ties between different layouts likely
+                things.add(new Thing(index, BigDecimal.valueOf(1 + random.nextInt(40), random.nextInt(3))
+                        , BigDecimal.valueOf(1 + random.nextInt(10), random.nextInt(2))));
+            }
+            tasks[i] = new Object[]{new PackagingTask(BigDecimal.valueOf(random.nextInt(60)), things)};
+        }
+        return tasks;
+    }
+
+    @Test(dataProvider = "random-tasks")
+    public void findsTheSameLayoutAsBruteForce(PackagingTask task) {
+        assertEquals(solve(task), solveExhaustively(task));
+    }
+
+    public void fillsRowsInParallel() {
+        Random random = new Random(7L);
+        List<Thing> things = new ArrayList<>();
+        for (int index = 1; index <= 50; index++) {
+            things.add(new Thing(index, BigDecimal.valueOf(1 + random.nextInt(4000), 2)
+                    , BigDecimal.valueOf(1 + random.nextInt(10))));
+        }
+        //The capacity of 10000 cells is split into several parts
+        PackagingTask task = new PackagingTask(BigDecimal.valueOf(100L), things);
+        assertEquals(DynamicProgrammingSolver.findBestLayout(task, POOL).getIndexesString(), solve(task));
+    }
+
+    //The table of 40 million cells would take 640 MiB with costs and weights of all cells, but bits of choices take
+    //5 MiB only
+    @Test(timeOut = 10000L)
+    public void solvesHighPrecisionTask() {
+        Random random = new Random(13L);
+        List<Thing> things = new ArrayList<>();
+        for (int index = 1; index <= 39; index++) {
+            things.add(new Thing(index, BigDecimal.valueOf(1 + random.nextInt(400_000), 4)
+                    , BigDecimal.valueOf(1 + random.nextInt(100))));
+        }
+        PackagingTask task = new PackagingTask(BigDecimal.valueOf(100L), things);
+        assertTrue(DynamicProgrammingSolver.isApplicable(task));
+        assertEquals(solve(task), MeetInTheMiddleSolver.findBestLayout(task).getIndexesString());
+    }
+
+    //Rows of 5 million cells are kept off-heap
+    @Test(timeOut = 20000L)
+    public void solvesTaskWithLargeCapacity() {
+        Random random = new Random(17L);
+        List<Thing> things = new ArrayList<>();
+        for (int index = 1; index <= 12; index++) {
+            things.add(new Thing(index, BigDecimal.valueOf(1 + random.nextInt(3_000_000), 5)
+                    , BigDecimal.valueOf(1 + random.nextInt(100))));
+        }
+        PackagingTask task = new PackagingTask(BigDecimal.valueOf(50L), things);
+        String expectedLayout = MeetInTheMiddleSolver.findBestLayout(task).getIndexesString();
+        assertEquals(solve(task), expectedLayout);
+        assertEquals(DynamicProgrammingSolver.findBestLayout(task, POOL).getIndexesString(), expectedLayout);
+    }
+
+    //The default kernel is the vector one if the JVM has the Vector API. Light things make blocks of cells read
+    //rest capacities from themselves.
+    public void updatesRowsWithDefaultKernelAsWithScalarOne() {
+        Random random = new Random(19L);
+        for (int i = 0; i < 300; i++) {
+            List<Thing> things = new ArrayList<>();
+            for (int index = 1; index <= 1 + random.nextInt(20); index++) {
+                things.add(new Thing(index, BigDecimal.valueOf(random.nextInt(2 + random.nextInt(100)))
+                        , BigDecimal.valueOf(random.nextInt(30))));
+            }
+            PackagingTask task = new PackagingTask(BigDecimal.valueOf(random.nextInt(500)), things);
+            assertEquals(solve(task), DynamicProgrammingSolver.findBestLayout(task, new ScalarRowKernel())
+                    .getIndexesString(), task.toString());
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "integration")
+public class ExhaustiveSolverTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static String solve(PackagingTask task) {
+        return ExhaustiveSolver.findBestLayout(task).getIndexesString();
+    }
+
+    public void findsEmptyPackagingBetterThanOverweight() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Collections.singletonList(
+                new Thing(42, BigDecimal.valueOf(55L), new BigDecimal("99.99"))
+        ));
+        assertEquals(solve(task), "-");
+    }
+
+    public void prefersLighterLayoutForEqualCost() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(1, new BigDecimal("5.01"), BigDecimal.TEN)
+                , new Thing(2, new BigDecimal("5"), BigDecimal.TEN)
+        ));
+        assertEquals(solve(task), "2");
+    }
+
+    public void prefersLowerLayoutNumberForEqualLayouts() {
+        //Layouts {1, 4} and {2, 3} are equally good, but {2, 3} has the lower layout number
+        PackagingTask task = new PackagingTask(BigDecimal.valueOf(7L), Arrays.asList(
+                new Thing(1, new BigDecimal("2"), new BigDecimal("3"))
+                , new Thing(2, new BigDecimal("3"), new BigDecimal("4"))
+                , new Thing(3, new BigDecimal("4"), new BigDecimal("5"))
+                , new Thing(4, new BigDecimal("5"), new BigDecimal("6"))
+        ));
+        assertEquals(solve(task), "2,3");
+    }
+
+    public void ignoresWorthlessThings() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(1, BigDecimal.ZERO, BigDecimal.ZERO)
+                , new Thing(2, new BigDecimal("3"), new BigDecimal("4"))
+        ));
+        assertEquals(solve(task), "2");
+    }
+
+    @DataProvider(name = "random-tasks")
+    public Object[][] getRandomTasks() {
+        Random random = new Random(42L);
+        return IntStream.range(0, 20)
+                .mapToObj(i -> {
+                    List<Thing> things = new ArrayList<>();
+                    int thingsNumber = random.nextInt(17);
+                    for (int index = 1; index <= thingsNumber; index++) {
+                        //Small set of values makes ties between different layouts likely
+                        things.add(new Thing(index, BigDecimal.valueOf(1 + random.nextInt(40))
+                                , BigDecimal.valueOf(1 + random.nextInt(10))));
+                    }
+                    return new Object[]{new PackagingTask(BigDecimal.valueOf(random.nextInt(100)), things)};
+                })
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "random-tasks")
+    public void findsTheSameLayoutInParallel(PackagingTask task) {
+        assertEquals(ExhaustiveSolver.findBestLayout(task, POOL).getIndexesString(), solve(task));
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "integration")
+public class IncrementalSolverTest {
+
+    //Applies random changes to the incremental solver and to the list of things, and compares the solution of
+    //the kept table with the solution from scratch after each change
+    public void findsTheSameLayoutAsSolvingFromScratch() {
+        Random random = new Random(11L);
+        BigDecimal weightLimit = BigDecimal.valueOf(50L);
+        List<Thing> things = new ArrayList<>();
+        IncrementalSolver solver = new IncrementalSolver(weightLimit);
+        for (int step = 0; step < 500; step++) {
+            int change = random.nextInt(10);
+            //Weights with decimal places appear rarely, so the table is mostly kept
+            BigDecimal weight = BigDecimal.valueOf(1 + random.nextInt(400), random.nextInt(50) == 0 ? 2 : 1);
+            if (change < 4 || things.isEmpty()) {
+                Thing thing = new Thing(step, weight, BigDecimal.valueOf(random.nextInt(100)));
+                things.add(thing);
+                solver.addThing(thing.getIndex(), thing.getWeight(), thing.getCost());
+            } else if (change < 6) {
+                solver.removeThing(things.remove(random.nextInt(things.size())).getIndex());
+            } else if (change < 8) {
+                int position = random.nextInt(things.size());
+                Thing thing = things.get(position);
+                things.set(position, new Thing(thing.getIndex(), weight, thing.getCost()));
+                solver.setThingWeight(thing.getIndex(), weight);
+            } else {
+                weightLimit = BigDecimal.valueOf(random.nextInt(100));
+                solver.setWeightLimit(weightLimit);
+            }
+            PackagingTask task = new PackagingTask(weightLimit, things);
+            assertEquals(solver.solve(), SolvingMethod.EXHAUSTIVE_SEARCH.isApplicable(task)
+                    ? SolvingMethod.EXHAUSTIVE_SEARCH.findBestLayout(task).getIndexesString()
+                    : PackagingTaskSolver.findBestLayout(task).getIndexesString(), "Step " + step);
+        }
+    }
+
+    public void fillsOnlyRowOfAddedThing() {
+        IncrementalSolver solver = new IncrementalSolver(BigDecimal.TEN);
+        solver.addThing(1, new BigDecimal("4"), new BigDecimal("5"));
+        solver.addThing(2, new BigDecimal("7"), new BigDecimal("6"));
+        solver.solve();
+        solver.addThing(3, new BigDecimal("6"), new BigDecimal("3"));
+        PackageLayout layout = solver.findBestLayout();
+        assertEquals(layout.getIndexesString(), "1,3");
+        assertEquals(layout.getExploredStates(), 11L);
+    }
+
+    public void fillsOnlyNewColumnsWhenWeightLimitIsRaised() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, new ArrayList<>());
+        IncrementalSolver solver = new IncrementalSolver(task);
+        solver.addThing(1, new BigDecimal("4"), new BigDecimal("5"));
+        solver.addThing(2, new BigDecimal("7"), new BigDecimal("6"));
+        solver.solve();
+        solver.setWeightLimit(new BigDecimal("5"));
+        assertEquals(solver.findBestLayout().getExploredStates(), 0L);
+        solver.setWeightLimit(new BigDecimal("12"));
+        assertEquals(solver.findBestLayout().getExploredStates(), 4L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bansRemovingUnknownThing() {
+        new IncrementalSolver(BigDecimal.TEN).removeThing(1);
+    }
+
+}
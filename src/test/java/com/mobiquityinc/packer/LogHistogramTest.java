@@ -0,0 +1,43 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "unit")
+public class LogHistogramTest {
+
+    public void putsEachValueIntoBucketCoveringIt() {
+        long[] values = {0L, 1L, 7L, 8L, 9L, 15L, 16L, 17L, 1000L, 123_456_789L, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+        for (long value : values) {
+            int index = LogHistogram.indexOf(value);
+            assertTrue(value <= LogHistogram.upperBoundOf(index), "Upper bound of " + value);
+            assertTrue(index == 0 || value > LogHistogram.upperBoundOf(index - 1), "Lower bound of " + value);
+        }
+    }
+
+    public void reportsZerosWhenEmpty() {
+        PackingMetrics.Distribution distribution = new LogHistogram().toDistribution();
+        assertEquals(distribution.getCount(), 0L);
+        assertEquals(distribution.getPercentile99(), 0L);
+    }
+
+    public void reportsPercentilesWithinBucketPrecision() {
+        LogHistogram histogram = new LogHistogram();
+        for (long value = 1L; value <= 1000L; value++) {
+            histogram.record(value);
+        }
+        PackingMetrics.Distribution distribution = histogram.toDistribution();
+        assertTrue(distribution.getMedian() >= 500L && distribution.getMedian() <= 500L * 9 / 8);
+        assertTrue(distribution.getPercentile99() >= 990L && distribution.getPercentile99() <= 1000L);
+        assertEquals(distribution.getMean(), 500.5, 1e-9);
+    }
+
+    public void neverReportsMoreThanMaximum() {
+        LogHistogram histogram = new LogHistogram();
+        histogram.record(1001L);
+        assertEquals(histogram.toDistribution().getPercentile999(), 1001L);
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "integration")
+public class MappedTaskLineReaderTest {
+
+    private static final String CONTENT = "81 : (1,53.38,€45) (2,88.62,€98)\r\n"
+            + "8 : (1,15.3,€34)\n"
+            + "\n"
+            + "75 : (1,85.31,€29) (2,14.55,€74)\r"
+            + "56 : (1,90.72,€13) (2,33.80,£40)\r\n"
+            + "\r\n"
+            + "10 : (1,1,💶 2) (2,2,€€3)";
+
+    private static List<String> readLines(Path file, int windowSize) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (MappedTaskLineReader reader = new MappedTaskLineReader(file, windowSize)) {
+            for (CharSequence line = reader.readLine(); line != null; line = reader.readLine()) {
+                StringBuilder chars = new StringBuilder();
+                for (int i = 0; i < line.length(); i++) {
+                    chars.append(line.charAt(i));
+                }
+                lines.add(chars.toString());
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> readLinesWithBufferedReader(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    @DataProvider(name = "window-sizes")
+    public Object[][] getWindowSizes() {
+        return new Object[][]{{1}, {2}, {7}, {34}, {35}, {36}, {MappedTaskLineReader.DEFAULT_WINDOW_SIZE}};
+    }
+
+    @Test(dataProvider = "window-sizes")
+    public void splitsLinesTheSameWayAsBufferedReader(int windowSize) throws IOException {
+        Path file = Files.createTempFile("tasks", ".txt");
+        try {
+            Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+            assertEquals(readLines(file, windowSize), readLinesWithBufferedReader(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void readsNothingFromEmptyFile() throws IOException {
+        Path file = Files.createTempFile("tasks", ".txt");
+        try {
+            assertEquals(readLines(file, MappedTaskLineReader.DEFAULT_WINDOW_SIZE).size(), 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void keepsEuroSignAsOneChar() throws IOException {
+        Path file = Files.createTempFile("tasks", ".txt");
+        Files.write(file, "8 : (1,15.3,€34)".getBytes(StandardCharsets.UTF_8));
+        try (MappedTaskLineReader reader = new MappedTaskLineReader(file, MappedTaskLineReader.DEFAULT_WINDOW_SIZE)) {
+            CharSequence line = reader.readLine();
+            assertEquals(line.length(), 16);
+            assertEquals(line.charAt(12), '€');
+            assertEquals(line.subSequence(12, 15), "€34");
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = CharacterCodingException.class)
+    public void rejectsMalformedInput() throws IOException {
+        Path file = Files.createTempFile("tasks", ".txt");
+        try {
+            Files.write(file, new byte[]{'8', ' ', ':', ' ', (byte) 0xE2, (byte) 0x82, '('});
+            readLines(file, MappedTaskLineReader.DEFAULT_WINDOW_SIZE);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "integration")
+public class MeetInTheMiddleSolverTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static String solve(PackagingTask task) {
+        return MeetInTheMiddleSolver.findBestLayout(task).getIndexesString();
+    }
+
+    private static String solveExhaustively(PackagingTask task) {
+        return ExhaustiveSolver.findBestLayout(task).getIndexesString();
+    }
+
+    public void findsEmptyPackagingBetterThanOverweight() {
+        PackagingTask task = new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(42, BigDecimal.valueOf(55L), new BigDecimal("99.99"))
+                , new Thing(15, BigDecimal.valueOf(11L), new BigDecimal("0.99"))
+        ));
+        assertEquals(solve(task), "-");
+    }
+
+    public void combinesThingsFromBothHalves() {
+        PackagingTask task = new PackagingTask(new BigDecimal("12.1"), Arrays.asList(
+                new Thing(1, new BigDecimal("6.6"), new BigDecimal("0.333"))
+                , new Thing(2, new BigDecimal("1.5"), new BigDecimal("0.111"))
+                , new Thing(3, new BigDecimal("5.6"), new BigDecimal("0.222"))
+                , new Thing(4, new BigDecimal("3.6"), new BigDecimal("0.444"))
+        ));
+        assertEquals(solve(task), "1,2,4");
+    }
+
+    @DataProvider(name = "small-random-tasks")
+    public Object[][] getSmallRandomTasks() {
+        Random random = new Random(42L);
+        return IntStream.range(0, 50)
+                .mapToObj(i -> new Object[]{RandomTasks.generateTieProneTask(random, 1 + random.nextInt(12)
+                        , random.nextInt(3), 100)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "small-random-tasks")
+    public void findsTheSameLayoutAsBruteForce(PackagingTask task) {
+        assertEquals(solve(task), solveExhaustively(task));
+    }
+
+    @DataProvider(name = "medium-random-tasks")
+    public Object[][] getMediumRandomTasks() {
+        Random random = new Random(42L);
+        return IntStream.range(0, 10)
+                .mapToObj(i -> new Object[]{RandomTasks.generateTieProneTask(random, 20 + random.nextInt(21), 4, 100)})
+                .toArray(Object[][]::new);
+    }
+
+    @Test(dataProvider = "medium-random-tasks", timeOut = 5000L)
+    public void findsTheSameLayoutAsBranchAndBound(PackagingTask task) {
+        assertEquals(solve(task), BranchAndBoundSolver.findBestLayout(task).getIndexesString());
+    }
+
+    @Test(dataProvider = "medium-random-tasks", timeOut = 5000L)
+    public void findsTheSameLayoutInParallel(PackagingTask task) {
+        assertEquals(MeetInTheMiddleSolver.findBestLayout(task, POOL).getIndexesString(), solve(task));
+    }
+
+}
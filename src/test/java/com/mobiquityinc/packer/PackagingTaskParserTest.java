@@ -3,6 +3,8 @@ package com.mobiquityinc.packer;
 import org.testng.annotations.Test;
 
 import java.math.BigDecimal;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -122,12 +124,66 @@ public class PackagingTaskParserTest {
 
     @Test(expectedExceptions = InvalidTaskStringException.class)
     public void bansThingsMoreThanLimit() throws InvalidTaskStringException {
-        PackagingTaskParser.parse("81 :"
-            + " (1,1.3,€10) (2,1.3,€10) (3,1.3,€10) (4,1.3,€10) (5,1.3,€10)"
-            + " (6,1.3,€10) (7,1.3,€10) (8,1.3,€10) (9,1.3,€10) (10,1.3,€10)"
-            + " (11,1.3,€10) (12,1.3,€10) (13,1.3,€10) (14,1.3,€10) (15,1.3,€10)"
-            + " (16,1.3,€10)"
-        );
+        PackagingTaskParser.parse("81 :" + IntStream.rangeClosed(1, 201)
+                .mapToObj(index -> " (" + index + ",1.3,€10)")
+                .collect(Collectors.joining()));
+    }
+
+    public void parsesMultiDigitThingIndex() throws InvalidTaskStringException {
+        PackagingTask task = PackagingTaskParser.parse("81 : (1,3.38,€1.01) (123,0.8,€13.2)");
+        assertThingProperties(task.getThingsToPackage().get(1), 123, "0.8", "13.2");
+    }
+
+    @Test(expectedExceptions = InvalidTaskStringException.class)
+    public void bansTooPreciseWeight() throws InvalidTaskStringException {
+        PackagingTaskParser.parse("81 : (1,1.0000000001,€13)");
+    }
+
+    @Test(dependsOnMethods = "bansTooPreciseWeight", expectedExceptions = InvalidTaskStringException.class
+            , expectedExceptionsMessageRegExp = "Maximum allowed number of decimal places is 9"
+                    + ", but got 13.0000000001 at.*")
+    public void bansTooPreciseCostWithTrailingZeros() throws InvalidTaskStringException {
+        PackagingTaskParser.parse("81 : (1,1.5,€13.000000000100)");
+    }
+
+    @Test(dependsOnMethods = "parsesTaskWithAllFractional")
+    public void dropsTrailingZerosBeyondMaximumDecimalPlaces() throws InvalidTaskStringException {
+        PackagingTask task = PackagingTaskParser.parse("8.0000000000 : (1,1.50000000000,€13.000000000000)");
+        assertEquals(task.getWeightLimit(), new BigDecimal("8"));
+        assertThingProperties(task.getThingsToPackage().get(0), 1, "1.5", "13");
+    }
+
+    @Test(dependsOnMethods = "bansInvalidWeightLimit")
+    public void includesColumnOfInvalidWeightDataInExceptionMessage() {
+        try {
+            PackagingTaskParser.parse("81X : (1,53.38,€13)");
+        } catch (InvalidTaskStringException e) {
+            assertTrue(e.getMessage().contains("at column 3"));
+        }
+    }
+
+    @Test(dependsOnMethods = "bansCostMoreThanLimit")
+    public void includesColumnOfInvalidThingValueInExceptionMessage() {
+        try {
+            PackagingTaskParser.parse("81 : (1,1.3,€101)");
+        } catch (InvalidTaskStringException e) {
+            assertTrue(e.getMessage().contains("but got 101 at column 14"));
+        }
+    }
+
+    public void countsBracesAfterSurrogatePairs() throws InvalidTaskStringException {
+        PackagingTask task = PackagingTaskParser.parse("81 : 😀 (1,53.38,€13)");
+        assertThingProperties(task.getThingsToPackage().get(0), 1, "53.38", "13");
+    }
+
+    public void ignoresTrailingSeparators() throws InvalidTaskStringException {
+        PackagingTask task = PackagingTaskParser.parse("81 : (1,53.38,€13)::");
+        assertEquals(task.getThingsNumber(), 1);
+    }
+
+    public void takesCostAfterAnyNonDigits() throws InvalidTaskStringException {
+        PackagingTask task = PackagingTaskParser.parse("81 : (1,53.38, EUR .13)");
+        assertThingProperties(task.getThingsToPackage().get(0), 1, "53.38", "13");
     }
 
 }
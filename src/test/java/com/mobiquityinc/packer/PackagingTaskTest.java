@@ -0,0 +1,58 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "unit")
+public class PackagingTaskTest {
+
+    public void scalesWeightsToTheBiggestScale() {
+        PackagingTask task = new PackagingTask(new BigDecimal("81"), Arrays.asList(
+                new Thing(1, new BigDecimal("53.38"), new BigDecimal("45"))
+                , new Thing(2, new BigDecimal("0.8"), new BigDecimal("1.5"))
+        ));
+        assertEquals(task.getScaledWeightLimit(), 8100L);
+        assertEquals(task.getScaledWeight(0), 5338L);
+        assertEquals(task.getScaledWeight(1), 80L);
+    }
+
+    public void scalesCostsToTheBiggestScale() {
+        PackagingTask task = new PackagingTask(new BigDecimal("81"), Arrays.asList(
+                new Thing(1, new BigDecimal("53.38"), new BigDecimal("45"))
+                , new Thing(2, new BigDecimal("0.8"), new BigDecimal("1.5"))
+        ));
+        assertEquals(task.getScaledCost(0), 450L);
+        assertEquals(task.getScaledCost(1), 15L);
+    }
+
+    public void returnsValuesWithoutScalingZeros() {
+        PackagingTask task = new PackagingTask(new BigDecimal("100"), Arrays.asList(
+                new Thing(7, new BigDecimal("53.38"), new BigDecimal("45"))
+                , new Thing(8, new BigDecimal("0.8"), new BigDecimal("1.5"))
+        ));
+        assertEquals(task.getWeightLimit(), new BigDecimal("100"));
+        assertEquals(task.getThingsToPackage().get(1).getWeight(), new BigDecimal("0.8"));
+        assertEquals(task.getThingsToPackage().get(0).getCost(), new BigDecimal("45"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsTooPreciseWeights() {
+        new PackagingTask(BigDecimal.TEN, Collections.singletonList(
+                new Thing(1, new BigDecimal("0.0000000001"), BigDecimal.ONE)
+        ));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsOverflowingWeights() {
+        new PackagingTask(BigDecimal.TEN, Arrays.asList(
+                new Thing(1, BigDecimal.valueOf(Long.MAX_VALUE), BigDecimal.ONE)
+                , new Thing(2, BigDecimal.ONE, BigDecimal.ONE)
+        ));
+    }
+
+}
@@ -3,8 +3,25 @@ package com.mobiquityinc.packer;
 import com.mobiquityinc.exception.APIException;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -45,6 +62,189 @@ public class PackerTest {
         }
     }
 
+    public void streamsSolutionToWriter() throws APIException {
+        StringWriter results = new StringWriter();
+        Packer.pack(DATASETS_PATH.resolve("pack-dataset.txt"), results);
+        assertEquals(results.toString(), String.join(NEW_LINE, "4", "-", "2,7", "8,9") + NEW_LINE);
+    }
+
+    @Test(dependsOnMethods = "streamsSolutionToWriter")
+    public void stopsWritingAfterInvalidLine() {
+        StringWriter results = new StringWriter();
+        try {
+            Packer.pack(DATASETS_PATH.resolve("invalid-dataset.txt"), results);
+        } catch (APIException e) {
+            assertTrue(e.getMessage().contains("line 4:"));
+        }
+        assertEquals(results.toString(), "4" + NEW_LINE);
+    }
+
+    public void keepsLinesOrderWhenSolvingInParallel() throws APIException, IOException {
+        List<String> taskLines = Files.readAllLines(DATASETS_PATH.resolve("pack-dataset.txt"));
+        Path manyTasksPath = Files.createTempFile("many-tasks", ".txt");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Files.write(manyTasksPath, Collections.nCopies(100, String.join(NEW_LINE, taskLines)));
+            StringWriter results = new StringWriter();
+            Packer.pack(manyTasksPath, results, executor, 8);
+            assertEquals(results.toString(), Packer.pack(manyTasksPath.toString()));
+        } finally {
+            executor.shutdown();
+            Files.delete(manyTasksPath);
+        }
+    }
+
+    public void splitsEachTaskAmongPoolWorkers() throws APIException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            StringWriter results = new StringWriter();
+            Packer.pack(DATASETS_PATH.resolve("pack-dataset.txt"), results, pool);
+            assertEquals(results.toString(), String.join(NEW_LINE, "4", "-", "2,7", "8,9") + NEW_LINE);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public void takesRepeatedTasksFromCache() throws APIException, IOException {
+        List<String> taskLines = Files.readAllLines(DATASETS_PATH.resolve("pack-dataset.txt"));
+        Path manyTasksPath = Files.createTempFile("many-tasks", ".txt");
+        try {
+            Files.write(manyTasksPath, Collections.nCopies(100, String.join(NEW_LINE, taskLines)));
+            StringWriter results = new StringWriter();
+            SolutionCache cache = new SolutionCache(16);
+            Packer.pack(manyTasksPath, results, Runnable::run, 1, cache);
+            assertEquals(results.toString(), Packer.pack(manyTasksPath.toString()));
+            assertEquals(cache.getMissCount(), taskLines.size());
+        } finally {
+            Files.delete(manyTasksPath);
+        }
+    }
+
+    public void solvesRepeatedTasksOnce() throws APIException, IOException {
+        List<String> taskLines = Files.readAllLines(DATASETS_PATH.resolve("pack-dataset.txt"));
+        Path manyTasksPath = Files.createTempFile("many-tasks", ".txt");
+        try {
+            Files.write(manyTasksPath, Collections.nCopies(100, String.join(NEW_LINE, taskLines)));
+            StringWriter results = new StringWriter();
+            PackingMetrics metrics = new PackingMetrics();
+            Packer.pack(manyTasksPath, results, Runnable::run, 1, metrics);
+            assertEquals(results.toString(), String.join(NEW_LINE, Collections.nCopies(100
+                    , String.join(NEW_LINE, "4", "-", "2,7", "8,9"))) + NEW_LINE);
+            assertEquals(metrics.getSnapshot().getSolveTimes().getCount(), taskLines.size());
+            assertEquals(metrics.getSnapshot().getPackedLines(), 100L * taskLines.size());
+        } finally {
+            Files.delete(manyTasksPath);
+        }
+    }
+
+    //A single thread could pack many files at once, because nothing waits for solvers
+    public void packsManyFilesAsynchronouslyWithSingleThread() throws APIException, IOException {
+        List<String> taskLines = Files.readAllLines(DATASETS_PATH.resolve("pack-dataset.txt"));
+        Path manyTasksPath = Files.createTempFile("many-tasks", ".txt");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Files.write(manyTasksPath, Collections.nCopies(100, String.join(NEW_LINE, taskLines)));
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(Packer.packAsync(manyTasksPath.toString(), executor, 4));
+            }
+            String expectedResults = Packer.pack(manyTasksPath.toString());
+            for (CompletableFuture<String> result : results) {
+                assertEquals(result.join(), expectedResults);
+            }
+        } finally {
+            executor.shutdown();
+            Files.delete(manyTasksPath);
+        }
+    }
+
+    public void completesAsynchronousPackingWithParsingErrors() throws InterruptedException {
+        StringWriter results = new StringWriter();
+        CompletableFuture<Void> packing = Packer.packAsync(DATASETS_PATH.resolve("invalid-dataset.txt"), results
+                , ForkJoinPool.commonPool(), 2);
+        try {
+            packing.get();
+            throw new AssertionError("Packing of the invalid file must fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof APIException);
+            assertTrue(e.getCause().getMessage().contains("line 4:"));
+        }
+        assertEquals(results.toString(), "4" + NEW_LINE);
+    }
+
+    //Nothing catches exceptions thrown by tasks of the executor, so the packing must complete by itself
+    public void completesAsynchronousPackingIfExecutorFails() throws InterruptedException, TimeoutException {
+        AtomicInteger executions = new AtomicInteger();
+        Executor failingExecutor = command -> {
+            if (executions.incrementAndGet() > 1) {
+                throw new IllegalStateException("The executor is broken");
+            }
+            ForkJoinPool.commonPool().execute(command);
+        };
+        CompletableFuture<Void> packing = Packer.packAsync(DATASETS_PATH.resolve("pack-dataset.txt")
+                , new StringWriter(), failingExecutor, 2);
+        try {
+            packing.get(10, TimeUnit.SECONDS);
+            throw new AssertionError("Packing with the broken executor must fail");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "The executor is broken");
+        }
+    }
+
+    public void completesAsynchronousPackingIfWriterFails() throws InterruptedException, TimeoutException {
+        Writer failingWriter = new StringWriter() {
+            @Override
+            public void write(char[] chars, int offset, int length) {
+                throw new IllegalStateException("The writer is broken");
+            }
+        };
+        CompletableFuture<Void> packing = Packer.packAsync(DATASETS_PATH.resolve("pack-dataset.txt"), failingWriter
+                , ForkJoinPool.commonPool(), 2);
+        try {
+            packing.get(10, TimeUnit.SECONDS);
+            throw new AssertionError("Packing with the broken writer must fail");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "The writer is broken");
+        }
+    }
+
+    public void solvesWithAllowedMethodsOnly() throws APIException {
+        for (SolvingMethod method : SolvingMethod.values()) {
+            StringWriter results = new StringWriter();
+            Packer.pack(DATASETS_PATH.resolve("pack-dataset.txt"), results, Runnable::run, 1, EnumSet.of(method));
+            assertEquals(results.toString(), String.join(NEW_LINE, "4", "-", "2,7", "8,9") + NEW_LINE);
+        }
+    }
+
+    //Things with the same cost/weight ratio and different weights could not be fixed by the reduction, and 60 things
+    //are too many for the brute force
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void throwsExceptionWhenNoAllowedMethodCouldSolveTask() throws APIException, IOException {
+        StringBuilder taskLine = new StringBuilder("100 :");
+        for (int index = 1; index <= 60; index++) {
+            taskLine.append(" (").append(index).append(',').append(1.5 * index).append(",€").append(1.5 * index)
+                    .append(')');
+        }
+        Path tasksPath = Files.createTempFile("unsolvable-tasks", ".txt");
+        try {
+            Files.write(tasksPath, Collections.singletonList(taskLine));
+            Packer.pack(tasksPath, new StringWriter(), Runnable::run, 1, EnumSet.of(SolvingMethod.EXHAUSTIVE_SEARCH));
+        } finally {
+            Files.delete(tasksPath);
+        }
+    }
+
+    @Test(expectedExceptions = APIException.class)
+    public void throwsExceptionWhenFileIsNotUtf8() throws APIException, IOException {
+        Path malformedPath = Files.createTempFile("malformed-tasks", ".txt");
+        try {
+            Files.write(malformedPath, new byte[]{'8', ' ', ':', ' ', '(', '1', ',', '1', ',', (byte) 0x80, '1', ')'});
+            Packer.pack(malformedPath.toString());
+        } finally {
+            Files.delete(malformedPath);
+        }
+    }
+
     public void findsSolution() throws APIException {
         Path packDatasetPath = DATASETS_PATH.resolve("pack-dataset.txt");
         assertEquals(Packer.pack(packDatasetPath.toString()), String.join(NEW_LINE, "4", "-", "2,7", "8,9") + NEW_LINE);
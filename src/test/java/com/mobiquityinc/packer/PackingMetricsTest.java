@@ -0,0 +1,105 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+import org.testng.annotations.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "integration")
+public class PackingMetricsTest {
+
+    private static final Path DATASETS_PATH = Paths.get("src", "test", "resources", "datasets");
+
+    private static PackingMetrics.Snapshot pack(String dataset) {
+        PackingMetrics metrics = new PackingMetrics();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Packer.pack(DATASETS_PATH.resolve(dataset), new StringWriter(), executor, 4, metrics);
+        } catch (APIException e) {
+            //Metrics of valid lines are still recorded
+        } finally {
+            executor.shutdown();
+        }
+        return metrics.getSnapshot();
+    }
+
+    public void measuresEachPhaseOfEachLine() {
+        PackingMetrics.Snapshot snapshot = pack("pack-dataset.txt");
+        assertEquals(snapshot.getPackedLines(), 4L);
+        assertEquals(snapshot.getParseTimes().getCount(), 4L);
+        assertEquals(snapshot.getFormatTimes().getCount(), 4L);
+    }
+
+    public void countsThingsAndSolvingMethods() {
+        PackingMetrics.Snapshot snapshot = pack("pack-dataset.txt");
+        assertEquals(snapshot.getThingsNumbers().getMax(), 9L);
+        assertEquals(snapshot.getSolvingMethods().values().stream().mapToLong(Long::longValue).sum(), 4L);
+        assertEquals(snapshot.getExploredStates().getCount(), 4L);
+    }
+
+    public void findsSlowestLine() {
+        PackingMetrics.SlowLine slowestLine = pack("pack-dataset.txt").getSlowestLine();
+        assertEquals(slowestLine.getFile(), DATASETS_PATH.resolve("pack-dataset.txt").toString());
+        assertTrue(slowestLine.getSolveTime() > 0L);
+    }
+
+    public void countsInvalidLines() {
+        PackingMetrics.Snapshot snapshot = pack("invalid-dataset.txt");
+        assertEquals(snapshot.getInvalidLines(), 2L);
+        assertEquals(snapshot.getPackedLines(), 1L);
+    }
+
+    //A few search nodes are not enough to prove the best layout of 100 random things
+    public void measuresGapsOfLinesStoppedByBudget() throws APIException, IOException {
+        Random random = new Random(14L);
+        StringBuilder taskLine = new StringBuilder("100 :");
+        for (int index = 1; index <= 100; index++) {
+            taskLine.append(" (").append(index).append(',').append(BigDecimal.valueOf(1 + random.nextInt(10_000), 2))
+                    .append(",€").append(1 + random.nextInt(100)).append(')');
+        }
+        Path tasksPath = Files.createTempFile("hard-tasks", ".txt");
+        PackingMetrics metrics = new PackingMetrics();
+        try {
+            Files.write(tasksPath, Collections.singletonList(taskLine));
+            Packer.pack(tasksPath, new StringWriter(), Runnable::run, 1, SolvingBudget.ofNodes(3L), metrics);
+        } finally {
+            Files.delete(tasksPath);
+        }
+        PackingMetrics.Snapshot snapshot = metrics.getSnapshot();
+        assertEquals(snapshot.getApproximateLines(), 1L);
+        assertEquals(snapshot.getRelativeGaps().getCount(), 1L);
+        assertEquals(snapshot.getWidestGapTask().getGap().signum(), 1, snapshot.toString());
+    }
+
+    public void exposesSnapshotAsMBeanAttribute() throws APIException, JMException {
+        PackingMetrics metrics = new PackingMetrics();
+        Packer.pack(DATASETS_PATH.resolve("pack-dataset.txt"), new StringWriter(), Runnable::run, 1, metrics);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.mobiquityinc.packer:type=PackingMetrics,name=test");
+        server.registerMBean(metrics, name);
+        try {
+            CompositeData snapshot = (CompositeData) server.getAttribute(name, "Snapshot");
+            assertEquals(snapshot.get("packedLines"), 4L);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+}
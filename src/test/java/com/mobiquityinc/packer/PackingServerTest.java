@@ -0,0 +1,125 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "integration")
+public class PackingServerTest {
+
+    private static final Path DATASETS_PATH = Paths.get("src", "test", "resources", "datasets");
+    private static final String INVALID_LINE = "8 : (1,15.3,€34";
+
+    private PackingServer server;
+
+    @BeforeClass
+    public void startServer() throws IOException {
+        server = PackingServer.start(0, DATASETS_PATH, ForkJoinPool.commonPool(), 4, new SolutionCache(100));
+    }
+
+    @AfterClass
+    public void stopServer() throws IOException {
+        server.close();
+    }
+
+    //Sends all requests before reading any response
+    private List<String> request(List<String> requests) throws IOException {
+        List<String> responses = new ArrayList<>();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+             Writer output = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+             BufferedReader input = new BufferedReader(new InputStreamReader(socket.getInputStream()
+                     , StandardCharsets.UTF_8))) {
+            for (String request : requests) {
+                output.write(request);
+                output.write('\n');
+            }
+            output.flush();
+            socket.shutdownOutput();
+            for (String response = input.readLine(); response != null; response = input.readLine()) {
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+
+    private static List<String> expectedResults(Path file) throws APIException {
+        return Arrays.asList(Packer.pack(file.toString()).split(System.lineSeparator()));
+    }
+
+    public void answersPipelinedTaskLinesInOrder() throws APIException, IOException {
+        Path file = DATASETS_PATH.resolve("pack-dataset.txt");
+        List<String> requests = new ArrayList<>(Files.readAllLines(file));
+        requests.add(INVALID_LINE);
+        requests.addAll(Files.readAllLines(file));
+        List<String> expectedResponses = new ArrayList<>(expectedResults(file));
+        expectedResponses.add(PackingServer.ERROR_RESPONSE_PREFIX + PackingServer.TASK_PARSING_ERROR);
+        expectedResponses.addAll(expectedResults(file));
+        assertEquals(request(requests), expectedResponses);
+    }
+
+    public void answersFileRequestsWithResultsAndErrors() throws APIException, IOException {
+        Path validFile = DATASETS_PATH.resolve("pack-dataset.txt");
+        Path invalidFile = DATASETS_PATH.resolve("invalid-dataset.txt");
+        List<String> responses = request(Arrays.asList(PackingServer.FILE_REQUEST_PREFIX + validFile.getFileName()
+                , PackingServer.FILE_REQUEST_PREFIX + invalidFile.getFileName()));
+        List<String> expectedResponses = new ArrayList<>(expectedResults(validFile));
+        expectedResponses.addAll(Arrays.asList("", "4", PackingServer.ERROR_RESPONSE_PREFIX + "Failed to parse line 2"
+                , PackingServer.ERROR_RESPONSE_PREFIX + "Failed to parse line 4", ""));
+        assertEquals(responses, expectedResponses);
+    }
+
+    public void rejectsFilesOutsideBaseDirectory() throws IOException {
+        Path outsideFile = Paths.get("pom.xml").toAbsolutePath();
+        List<String> responses = request(Arrays.asList(PackingServer.FILE_REQUEST_PREFIX + outsideFile
+                , PackingServer.FILE_REQUEST_PREFIX + DATASETS_PATH.toAbsolutePath().relativize(outsideFile)
+                , PackingServer.FILE_REQUEST_PREFIX + "missing-dataset.txt"));
+        String fileNotFound = PackingServer.ERROR_RESPONSE_PREFIX + BaseDirectory.FILE_NOT_FOUND_MESSAGE;
+        assertEquals(responses, Arrays.asList(fileNotFound, "", fileNotFound, "", fileNotFound, ""));
+    }
+
+    public void servesClientsConcurrently() throws APIException, InterruptedException, ExecutionException {
+        Path file = DATASETS_PATH.resolve("pack-dataset.txt");
+        List<Callable<List<String>>> clients = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            clients.add(() -> request(Files.readAllLines(file)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(clients.size());
+        try {
+            for (Future<List<String>> responses : executor.invokeAll(clients)) {
+                assertEquals(responses.get(), expectedResults(file));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bansNonPositiveTasksInFlight() throws IOException {
+        PackingServer.start(0, DATASETS_PATH, ForkJoinPool.commonPool(), 0, new SolutionCache(100));
+    }
+
+}
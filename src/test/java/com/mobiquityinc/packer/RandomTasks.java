@@ -0,0 +1,69 @@
+package com.mobiquityinc.packer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+//Random packaging tasks shared by tests. Values are taken from the generator in a fixed order: things one by one,
+//then the weight limit, so a seed always gives the same task.
+final class RandomTasks {
+
+    private RandomTasks() {
+        //No need to instantiate this class
+    }
+
+    //Small set of values makes ties between different layouts likely
+    static PackagingTask generateTieProneTask(Random random, int thingsNumber, int weightScale, int weightLimitBound) {
+        int weightBound = 40 * (int) Math.pow(10, weightScale);
+        return generateTask(thingsNumber
+                , index -> new Thing(index, BigDecimal.valueOf(1 + random.nextInt(weightBound), weightScale)
+                        , BigDecimal.valueOf(1 + random.nextInt(10), random.nextInt(2)))
+                , () -> BigDecimal.valueOf(random.nextInt(weightLimitBound)));
+    }
+
+    //Weights and costs up to the maximum allowed by the parser in the package of the maximum weight limit, so only
+    //the number of things and decimal places of weights tell which method is the cheapest one
+    static PackagingTask generateWideRangeTask(Random random, int thingsNumber, int weightScale) {
+        int weightBound = (int) PackagingTaskParser.MAX_THING_WEIGHT * (int) Math.pow(10, weightScale);
+        return generateTask(thingsNumber
+                , index -> new Thing(index, BigDecimal.valueOf(1 + random.nextInt(weightBound), weightScale)
+                        , BigDecimal.valueOf(1 + random.nextInt((int) PackagingTaskParser.MAX_THING_COST)))
+                , () -> BigDecimal.valueOf(PackagingTaskParser.MAX_WEIGHT_LIMIT));
+    }
+
+    //Few distinct values give many identical and dominated things, zero costs and things heavier than the limit
+    static PackagingTask generateDominatedTask(Random random, int thingsNumber) {
+        return generateTask(thingsNumber
+                , index -> new Thing(index, BigDecimal.valueOf(random.nextInt(12))
+                        , BigDecimal.valueOf(random.nextInt(6)))
+                , () -> BigDecimal.valueOf(random.nextInt(30)));
+    }
+
+    //Any task the parser could give: up to the maximum number of things with any indexes, weights with up to
+    //the maximum number of decimal places and costs including zero ones
+    static PackagingTask generateAnyTask(Random random) {
+        int weightScale = random.nextInt(PackagingTask.MAX_SCALE + 1);
+        int costScale = random.nextInt(3);
+        int weightBound = (int) PackagingTaskParser.MAX_THING_WEIGHT * (int) Math.pow(10, weightScale);
+        int costBound = (int) PackagingTaskParser.MAX_THING_COST * (int) Math.pow(10, costScale) + 1;
+        return generateTask(1 + random.nextInt(PackagingTaskParser.MAXIMUM_THINGS_ALLOWED)
+                , index -> new Thing(random.nextInt(1_000_000_000)
+                        , BigDecimal.valueOf(1 + random.nextInt(weightBound), weightScale)
+                        , BigDecimal.valueOf(random.nextInt(costBound), costScale))
+                , () -> BigDecimal.valueOf(random.nextInt((int) PackagingTaskParser.MAX_WEIGHT_LIMIT + 1)));
+    }
+
+    //Things get indexes from 1 in the order they are generated
+    private static PackagingTask generateTask(int thingsNumber, IntFunction<Thing> thingGenerator
+            , Supplier<BigDecimal> weightLimitGenerator) {
+        List<Thing> things = IntStream.rangeClosed(1, thingsNumber)
+                .mapToObj(thingGenerator)
+                .collect(Collectors.toList());
+        return new PackagingTask(weightLimitGenerator.get(), things);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "unit")
+public class ResultEncoderTest {
+
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private static PackageLayout createLayout(int... indexes) {
+        List<Thing> things = new ArrayList<>();
+        for (int index : indexes) {
+            things.add(new Thing(index, BigDecimal.ONE, BigDecimal.ONE));
+        }
+        return new PackageLayout(things);
+    }
+
+    private static String encode(int bufferSize, PackageLayout... layouts) throws IOException {
+        StringWriter output = new StringWriter();
+        ResultEncoder encoder = new ResultEncoder(output, bufferSize);
+        for (PackageLayout layout : layouts) {
+            encoder.encode(layout);
+        }
+        encoder.writeBuffer();
+        return output.toString();
+    }
+
+    public void encodesIndexesAsLayoutString() throws IOException {
+        PackageLayout emptyLayout = createLayout();
+        PackageLayout layout = createLayout(42, 7, 0, 100_000, Integer.MAX_VALUE, Integer.MIN_VALUE);
+        assertEquals(encode(ResultEncoder.DEFAULT_BUFFER_SIZE, emptyLayout, layout)
+                , emptyLayout.getIndexesString() + NEW_LINE + layout.getIndexesString() + NEW_LINE);
+    }
+
+    //Results longer than the buffer are written by parts
+    public void writesFullBufferToOutput() throws IOException {
+        PackageLayout layout = createLayout(1, 22, 333, 4444, 55_555, 666_666, 7_777_777, 88_888_888, 999_999_999);
+        String expectedResults = String.join("", Collections.nCopies(50, layout.getIndexesString() + NEW_LINE));
+        assertEquals(encode(11, Collections.nCopies(50, layout).toArray(new PackageLayout[0])), expectedResults);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bansBufferShorterThanNumber() {
+        new ResultEncoder(new StringWriter(), 10);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "unit")
+public class RowKernelLoaderTest {
+
+    public void fallsBackToScalarKernelIfKernelIsMissing() {
+        assertEquals(RowKernelLoader.load("com.mobiquityinc.packer.MissingRowKernel").getClass()
+                , ScalarRowKernel.class);
+    }
+
+    //As the vector kernel compiled by JDK 17 does on JDK 21
+    public void fallsBackToScalarKernelIfKernelFailsOnProbe() {
+        assertEquals(RowKernelLoader.load(MissingMethodRowKernel.class.getName()).getClass()
+                , ScalarRowKernel.class);
+    }
+
+    public void fallsBackToScalarKernelIfKernelFillsProbeRowDifferently() {
+        assertEquals(RowKernelLoader.load(NothingTakingRowKernel.class.getName()).getClass()
+                , ScalarRowKernel.class);
+    }
+
+    public void loadsKernelFillingProbeRowAsScalarOne() {
+        assertTrue(RowKernelLoader.load(CopyingRowKernel.class.getName()) instanceof CopyingRowKernel);
+    }
+
+    static final class MissingMethodRowKernel implements RowKernel {
+
+        @Override
+        public void addThing(ByteBuffer costs, ByteBuffer weights, int cellsInRow, long thingWeight, long thingCost
+                , LongBuffer choices, int choicesOffset) {
+            throw new NoSuchMethodError("jdk.incubator.vector.LongVector.fromByteBuffer");
+        }
+
+    }
+
+    static final class NothingTakingRowKernel implements RowKernel {
+
+        @Override
+        public void addThing(ByteBuffer costs, ByteBuffer weights, int cellsInRow, long thingWeight, long thingCost
+                , LongBuffer choices, int choicesOffset) {
+            //Leaves the row as it is
+        }
+
+    }
+
+    static final class CopyingRowKernel implements RowKernel {
+
+        private final RowKernel kernel = new ScalarRowKernel();
+
+        @Override
+        public void addThing(ByteBuffer costs, ByteBuffer weights, int cellsInRow, long thingWeight, long thingCost
+                , LongBuffer choices, int choicesOffset) {
+            kernel.addThing(costs, weights, cellsInRow, thingWeight, thingCost, choices, choicesOffset);
+        }
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+
+@Test(groups = "integration")
+public class SolutionCacheTest {
+
+    private static PackagingTask createTask(String weightLimit, int firstIndex, String... weights) {
+        List<Thing> things = IntStream.range(0, weights.length)
+                .mapToObj(i -> new Thing(firstIndex + i, new BigDecimal(weights[i]), BigDecimal.TEN))
+                .collect(Collectors.toList());
+        return new PackagingTask(new BigDecimal(weightLimit), things);
+    }
+
+    private static String solve(SolutionCache cache, PackagingTask task) {
+        return cache.findBestLayout(task, PackagingTaskSolver::findBestLayout).getIndexesString();
+    }
+
+    public void appliesCachedLayoutToIndexesOfTask() {
+        SolutionCache cache = new SolutionCache(10);
+        assertEquals(solve(cache, createTask("10", 1, "5", "6", "4")), "1,3");
+        assertEquals(solve(cache, createTask("10", 7, "5", "6", "4")), "7,9");
+        assertEquals(cache.getMissCount(), 1L);
+        assertEquals(cache.getHitCount(), 1L);
+    }
+
+    public void distinguishesOrderOfThings() {
+        SolutionCache cache = new SolutionCache(10);
+        solve(cache, createTask("10", 1, "5", "6", "4"));
+        assertEquals(solve(cache, createTask("10", 1, "6", "5", "4")), "2,3");
+        assertEquals(cache.getHitCount(), 0L);
+    }
+
+    public void ignoresScaleOfValues() {
+        SolutionCache cache = new SolutionCache(10);
+        solve(cache, createTask("10", 1, "5", "6", "4"));
+        assertEquals(solve(cache, createTask("1.0", 1, "0.5", "0.6", "0.4")), "1,3");
+        assertEquals(cache.getHitCount(), 1L);
+    }
+
+    public void evictsLeastRecentlyUsedTask() {
+        SolutionCache cache = new SolutionCache(2);
+        PackagingTask first = createTask("10", 1, "5");
+        PackagingTask second = createTask("10", 1, "6");
+        solve(cache, first);
+        solve(cache, second);
+        solve(cache, first);
+        solve(cache, createTask("10", 1, "7"));
+        solve(cache, second);
+        assertEquals(cache.getHitCount(), 1L);
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bansNonPositiveSize() {
+        new SolutionCache(0);
+    }
+
+    public void isSharedByParallelThreads() throws InterruptedException, ExecutionException {
+        SolutionCache cache = new SolutionCache(4);
+        List<PackagingTask> tasks = IntStream.range(0, 400)
+                .mapToObj(i -> createTask("10", i, "5", String.valueOf(i % 8), "4", "1"))
+                .collect(Collectors.toList());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = executor.invokeAll(tasks.stream()
+                    .map(task -> (Callable<String>) () -> solve(cache, task))
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < tasks.size(); i++) {
+                assertEquals(results.get(i).get()
+                        , PackagingTaskSolver.findBestLayout(tasks.get(i)).getIndexesString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(cache.getHitCount() + cache.getMissCount(), 400L);
+    }
+
+}
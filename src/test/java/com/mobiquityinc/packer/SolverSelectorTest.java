@@ -0,0 +1,127 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "integration")
+public class SolverSelectorTest {
+
+    @DataProvider(name = "cheapest-methods")
+    public Object[][] getCheapestMethods() {
+        Random random = new Random(5L);
+        return new Object[][]{
+            {RandomTasks.generateWideRangeTask(random, 4, 6), SolvingMethod.EXHAUSTIVE_SEARCH}
+            , {RandomTasks.generateWideRangeTask(random, 30, 6), SolvingMethod.MEET_IN_THE_MIDDLE}
+            , {RandomTasks.generateWideRangeTask(random, 100, 0), SolvingMethod.DYNAMIC_PROGRAMMING}
+            , {RandomTasks.generateWideRangeTask(random, 100, 6), SolvingMethod.BRANCH_AND_BOUND}
+        };
+    }
+
+    @Test(dataProvider = "cheapest-methods")
+    public void selectsCheapestMethod(PackagingTask task, SolvingMethod method) {
+        assertSame(SolverSelector.ALL_METHODS.select(task), method);
+    }
+
+    public void selectsOnlyAllowedMethods() {
+        PackagingTask task = RandomTasks.generateWideRangeTask(new Random(6L), 20, 0);
+        SolverSelector selector = new SolverSelector(EnumSet.of(SolvingMethod.EXHAUSTIVE_SEARCH));
+        assertSame(selector.select(task), SolvingMethod.EXHAUSTIVE_SEARCH);
+    }
+
+    public void solvesWithBranchAndBoundIfOtherAllowedMethodsCouldNot() {
+        PackagingTask task = RandomTasks.generateWideRangeTask(new Random(7L), 100, 6);
+        SolverSelector selector = new SolverSelector(EnumSet.of(SolvingMethod.DYNAMIC_PROGRAMMING
+                , SolvingMethod.BRANCH_AND_BOUND));
+        assertSame(selector.select(task), SolvingMethod.BRANCH_AND_BOUND);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class
+            , expectedExceptionsMessageRegExp = "None of the allowed methods \\[DYNAMIC_PROGRAMMING\\] .*")
+    public void failsIfNoAllowedMethodCouldSolveTask() {
+        PackagingTask task = RandomTasks.generateWideRangeTask(new Random(7L), 100, 6);
+        new SolverSelector(EnumSet.of(SolvingMethod.DYNAMIC_PROGRAMMING)).select(task);
+    }
+
+    public void selectsPluggedSolver() {
+        Solver freeSolver = new Solver() {
+
+            @Override
+            public boolean isApplicable(PackagingTask packagingTask) {
+                return true;
+            }
+
+            @Override
+            public double estimateCost(PackagingTask packagingTask) {
+                return 0.0;
+            }
+
+            @Override
+            public PackageLayout findBestLayout(PackagingTask packagingTask) {
+                return new PackageLayout(Collections.emptyList());
+            }
+
+            @Override
+            public PackageLayout findBestLayout(PackagingTask packagingTask, ForkJoinPool pool) {
+                return findBestLayout(packagingTask);
+            }
+
+        };
+        SolverSelector selector = new SolverSelector(Arrays.asList(SolvingMethod.EXHAUSTIVE_SEARCH, freeSolver));
+        assertSame(selector.select(RandomTasks.generateWideRangeTask(new Random(8L), 4, 0)), freeSolver);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bansNoMethods() {
+        new SolverSelector(EnumSet.noneOf(SolvingMethod.class));
+    }
+
+    public void findsTheSameLayoutWithEachMethod() {
+        Random random = new Random(9L);
+        for (int i = 0; i < 50; i++) {
+            PackagingTask task = RandomTasks.generateWideRangeTask(random, 1 + random.nextInt(20), random.nextInt(3));
+            String layout = SolverSelector.ALL_METHODS.findBestLayout(task).getIndexesString();
+            for (SolvingMethod method : SolvingMethod.values()) {
+                if (method.isApplicable(task)) {
+                    assertEquals(method.findBestLayout(task).getIndexesString(), layout, method + " for " + task);
+                }
+            }
+        }
+    }
+
+    public void solvesExactlyWithinTimeBudget() {
+        PackagingTask task = RandomTasks.generateWideRangeTask(new Random(12L), 30, 6);
+        AnytimeLayout layout = SolverSelector.ALL_METHODS.findBestLayout(task, SolvingBudget.ofTime(1L
+                , TimeUnit.SECONDS));
+        assertTrue(layout.isOptimal());
+        assertEquals(layout.getLayout().getIndexesString()
+                , SolverSelector.ALL_METHODS.findBestLayout(task).getIndexesString());
+    }
+
+    //The meet in the middle is the cheapest method for the reduced task, but it could not be stopped after a few nodes
+    public void stopsSearchWithinNodeBudget() {
+        PackagingTask task = RandomTasks.generateWideRangeTask(new Random(14L), 100, 0);
+        AnytimeLayout layout = SolverSelector.ALL_METHODS.findBestLayout(task, SolvingBudget.ofNodes(3L));
+        assertFalse(layout.isOptimal());
+        assertTrue(layout.getGap().signum() > 0, layout.toString());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void bansBudgetWithoutBranchAndBound() {
+        PackagingTask task = RandomTasks.generateWideRangeTask(new Random(15L), 30, 6);
+        new SolverSelector(EnumSet.of(SolvingMethod.MEET_IN_THE_MIDDLE)).findBestLayout(task
+                , SolvingBudget.ofTime(1L, TimeUnit.SECONDS));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.mobiquityinc.packer;
+
+import com.mobiquityinc.exception.APIException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "integration")
+public class TaskFileConverterTest {
+
+    private static final Path DATASETS_PATH = Paths.get("src", "test", "resources", "datasets");
+
+    public void packsBinaryFileTheSameWayAsText() throws APIException, IOException {
+        Path textFile = DATASETS_PATH.resolve("pack-dataset.txt");
+        Path binaryFile = Files.createTempFile("tasks", ".bin");
+        try {
+            TaskFileConverter.convertToBinary(textFile, binaryFile);
+            StringWriter results = new StringWriter();
+            Packer.pack(binaryFile, results);
+            assertEquals(results.toString(), Packer.pack(textFile.toString()));
+        } finally {
+            Files.delete(binaryFile);
+        }
+    }
+
+    public void reportsAllInvalidLines() throws IOException {
+        Path binaryFile = Files.createTempFile("tasks", ".bin");
+        try {
+            TaskFileConverter.convertToBinary(DATASETS_PATH.resolve("invalid-dataset.txt"), binaryFile);
+            throw new AssertionError("Conversion of invalid lines must fail");
+        } catch (APIException e) {
+            assertTrue(e.getMessage().contains("line 2:") && e.getMessage().contains("line 4:"));
+        } finally {
+            Files.delete(binaryFile);
+        }
+    }
+
+    //Lines before the first invalid one would make a truncated file which is decoded as a valid one
+    public void leavesNoFileAfterInvalidLines() throws IOException {
+        Path directory = Files.createTempDirectory("tasks");
+        try {
+            TaskFileConverter.convertToBinary(DATASETS_PATH.resolve("invalid-dataset.txt")
+                    , directory.resolve("tasks.bin"));
+            throw new AssertionError("Conversion of invalid lines must fail");
+        } catch (APIException e) {
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(files.count(), 0L);
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    public void keepsExistingFileAfterInvalidLines() throws APIException, IOException {
+        Path binaryFile = Files.createTempFile("tasks", ".bin");
+        try {
+            TaskFileConverter.convertToBinary(DATASETS_PATH.resolve("pack-dataset.txt"), binaryFile);
+            byte[] convertedTasks = Files.readAllBytes(binaryFile);
+            try {
+                TaskFileConverter.convertToBinary(DATASETS_PATH.resolve("invalid-dataset.txt"), binaryFile);
+                throw new AssertionError("Conversion of invalid lines must fail");
+            } catch (APIException e) {
+                assertEquals(Files.readAllBytes(binaryFile), convertedTasks);
+            }
+        } finally {
+            Files.delete(binaryFile);
+        }
+    }
+
+    @Test(expectedExceptions = APIException.class)
+    public void bansConversionIntoTextFile() throws APIException {
+        Path textFile = DATASETS_PATH.resolve("pack-dataset.txt");
+        TaskFileConverter.convertToBinary(textFile, textFile);
+    }
+
+    //The same file could be given by different paths
+    public void putsBothPathsOfSameFileInException() {
+        Path textFile = DATASETS_PATH.resolve("pack-dataset.txt");
+        Path binaryFile = textFile.toAbsolutePath();
+        try {
+            TaskFileConverter.convertToBinary(textFile, binaryFile);
+            throw new AssertionError("Conversion into the text file must fail");
+        } catch (APIException e) {
+            assertTrue(e.getMessage().contains("'" + textFile + "'"));
+            assertTrue(e.getMessage().contains("'" + binaryFile + "'"));
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(groups = "integration")
+public class TaskReductionTest {
+
+    private static PackagingTask createTask(String weightLimit, String... weightsAndCosts) {
+        List<Thing> things = IntStream.range(0, weightsAndCosts.length / 2)
+                .mapToObj(i -> new Thing(i + 1, new BigDecimal(weightsAndCosts[2 * i])
+                        , new BigDecimal(weightsAndCosts[2 * i + 1])))
+                .collect(Collectors.toList());
+        return new PackagingTask(new BigDecimal(weightLimit), things);
+    }
+
+    private static PackageLayout solveReduced(PackagingTask task) {
+        TaskReduction reduction = TaskReduction.of(task);
+        return reduction.isComplete() ? reduction.getFixedLayout()
+                : reduction.expand(SolvingMethod.EXHAUSTIVE_SEARCH.findBestLayout(reduction.getReducedTask()));
+    }
+
+    public void findsTheSameLayoutAsBruteForce() {
+        Random random = new Random(10L);
+        for (int i = 0; i < 2000; i++) {
+            PackagingTask task = RandomTasks.generateDominatedTask(random, 1 + random.nextInt(12));
+            assertEquals(solveReduced(task).getIndexesString()
+                    , SolvingMethod.EXHAUSTIVE_SEARCH.findBestLayout(task).getIndexesString(), task.toString());
+        }
+    }
+
+    public void leavesOutTooHeavyCostlessAndDominatedThings() {
+        //The third thing is dominated by the fourth one, and they don't fit together
+        PackagingTask task = createTask("10", "11", "50", "1", "0", "7", "20", "6", "30", "3", "1", "4", "2", "3", "1");
+        TaskReduction reduction = TaskReduction.of(task);
+        assertEquals(reduction.getReducedTask().getThingsToPackage().stream().map(Thing::getIndex)
+                .collect(Collectors.toList()).toString(), "[5, 6, 7]");
+        assertEquals(reduction.getReducedTask().getWeightLimit(), new BigDecimal("4"));
+        assertEquals(solveReduced(task).getIndexesString(), "4,6");
+    }
+
+    public void fixesThingsByCostBounds() {
+        //Without the fourth or the sixth thing the cost could not reach the cost 32 of the greedy layout, and the
+        //fifth thing doesn't fit together with them
+        TaskReduction reduction = TaskReduction.of(createTask("10", "11", "50", "1", "0", "7", "20", "6", "30", "3"
+                , "1", "4", "2"));
+        assertTrue(reduction.isComplete());
+        assertEquals(reduction.getFixedLayout().getIndexesString(), "4,6");
+    }
+
+    public void takesAllThingsIfTheyFit() {
+        TaskReduction reduction = TaskReduction.of(createTask("10", "1", "5", "2", "0", "3", "5", "15", "50"));
+        assertTrue(reduction.isComplete());
+        assertEquals(reduction.getFixedLayout().getIndexesString(), "1,3");
+    }
+
+    public void keepsIdenticalThingsInBruteForceOrder() {
+        PackagingTask task = createTask("5", "5", "10", "5", "10", "5", "10");
+        assertEquals(solveReduced(task).getIndexesString(), "1");
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.mobiquityinc.packer;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+@Test(groups = "integration")
+public class TextTaskReaderTest {
+
+    private static final String FIRST_LINE = "81 : (1,53.38,€45) (2,88.62,€98)";
+    private static final String SECOND_LINE = "8 : (1,15.3,€34)";
+    private static final String INVALID_LINE = "8 : (1,15.3,€34";
+
+    private static Path createFile(String... lines) throws IOException {
+        Path file = Files.createTempFile("repeated-tasks", ".txt");
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    public void parsesRepeatedLineOnce() throws IOException, InvalidTaskStringException {
+        Path file = createFile(FIRST_LINE, SECOND_LINE, FIRST_LINE);
+        try (TaskReader reader = TaskReader.open(file)) {
+            PackagingTask firstTask = reader.readTask();
+            PackagingTask secondTask = reader.readTask();
+            assertNotSame(secondTask, firstTask);
+            assertSame(reader.readTask(), firstTask);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void forgetsLeastRecentlyUsedLines() throws IOException, InvalidTaskStringException {
+        Path file = createFile(FIRST_LINE, SECOND_LINE, FIRST_LINE);
+        try (TaskReader reader = new TextTaskReader(TaskLineReader.open(file), 1)) {
+            PackagingTask firstTask = reader.readTask();
+            reader.readTask();
+            PackagingTask repeatedTask = reader.readTask();
+            assertNotSame(repeatedTask, firstTask);
+            assertEquals(repeatedTask.toString(), firstTask.toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    //Only ASCII characters and the euro sign are kept in copies of lines
+    public void parsesRepeatedLineWithOtherCharactersAgain() throws IOException, InvalidTaskStringException {
+        String poundLine = SECOND_LINE.replace('€', '£');
+        Path file = createFile(poundLine, SECOND_LINE, poundLine);
+        try (TaskReader reader = TaskReader.open(file)) {
+            PackagingTask firstTask = reader.readTask();
+            assertEquals(reader.readTask().toString(), firstTask.toString());
+            PackagingTask repeatedTask = reader.readTask();
+            assertNotSame(repeatedTask, firstTask);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test(expectedExceptions = InvalidTaskStringException.class)
+    public void reportsRepeatedInvalidLine() throws IOException, InvalidTaskStringException {
+        Path file = createFile(INVALID_LINE, INVALID_LINE);
+        try (TaskReader reader = TaskReader.open(file)) {
+            try {
+                reader.readTask();
+            } catch (InvalidTaskStringException e) {
+                //The copy must be reported as well
+                reader.readTask();
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}